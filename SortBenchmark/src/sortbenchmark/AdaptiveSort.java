@@ -0,0 +1,419 @@
+package sortbenchmark;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Samples the input, classifies its shape and hands it to the registered engine
+// with the lowest predicted cost. Cost per engine and shape is a*n*log2(n) + b;
+// the built-in engines start from rough priors, and calibrate() refits a and b
+// either from timings on ArrayGenerator patterns or from stored ResultStore
+// history. Where one engine is the fastest on a shape, the dispatcher can only
+// tie it there, less the cost of profiling; it gains over every fixed engine
+// by switching where another one is much faster on some shape, such as
+// DuplicateAwareSort on few unique values.
+public class AdaptiveSort implements SortAlgorithm {
+
+    private static final Logger LOG = Logger.getLogger(AdaptiveSort.class.getName());
+    private static final int SAMPLE = 128;
+    private static final int BLOCKS = 64;
+    private static final int BLOCK_LEN = 16;
+    private static final int HEAVY_COUNT = 3;
+    // Profiling costs several microseconds, as much as sorting a small array
+    // whose order is already favourable, so smaller inputs skip it.
+    private static final int PROFILE_MIN = 1 << 15;
+
+    public enum Shape {
+        SORTED("Sorted"), REVERSE("Reverse"), PRESORTED("Nearly Sorted"),
+        FEW_UNIQUE("Few Unique"), HEAVY_HITTERS("Low Cardinality"), RANDOM("Random");
+
+        final String pattern;
+
+        Shape(String pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    public static final class Profile {
+        public final int size;
+        public final double descentRatio;
+        public final double monotoneRatio;
+        public final double inversionRatio;
+        public final double duplicateRatio;
+        public final int sampled;
+        public final int distinct;
+        public final double heavyShare;
+        public final long range;
+
+        Profile(int size, double descentRatio, double monotoneRatio, double inversionRatio, int sampled,
+                int distinct, double heavyShare, long range) {
+            this.size = size;
+            this.descentRatio = descentRatio;
+            this.monotoneRatio = monotoneRatio;
+            this.inversionRatio = inversionRatio;
+            this.duplicateRatio = sampled == 0 ? 0 : 1.0 - distinct / (double) sampled;
+            this.sampled = sampled;
+            this.distinct = distinct;
+            this.heavyShare = heavyShare;
+            this.range = range;
+        }
+
+        // Few unique values when nearly the whole sample repeats; heavy hitters
+        // when most of it does but a unique tail follows (e.g. "Low Cardinality"),
+        // which runs slower through the duplicate-aware path. Presorted covers
+        // inputs made of long ascending or descending runs, such as "Sawtooth"
+        // and "Organ Pipe", whose blocks are monotone even though the sample
+        // looks shuffled.
+        public Shape shape() {
+            if (heavyShare >= 0.95) return Shape.FEW_UNIQUE;
+            if (heavyShare >= 0.75) return Shape.HEAVY_HITTERS;
+            if (descentRatio == 0 && inversionRatio == 0) return Shape.SORTED;
+            if (descentRatio > 0.95 && inversionRatio > 0.95) return Shape.REVERSE;
+            if (descentRatio < 0.1 || monotoneRatio >= 0.5 || inversionRatio < 0.1 || inversionRatio > 0.9) {
+                return Shape.PRESORTED;
+            }
+            return Shape.RANDOM;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d, descents=%.2f, monotone=%.2f, inversions=%.2f, duplicates=%.2f, heavy=%.2f, range=%d",
+                    size, descentRatio, monotoneRatio, inversionRatio, duplicateRatio, heavyShare, range);
+        }
+    }
+
+    private static final class Cost {
+        final double perElement;
+        final double fixed;
+
+        Cost(double perElement, double fixed) {
+            this.perElement = perElement;
+            this.fixed = fixed;
+        }
+
+        double predict(int n) {
+            return perElement * n * log2(n) + fixed;
+        }
+    }
+
+    private final Map<String, SortAlgorithm> engines = new LinkedHashMap<>();
+    private final Map<String, Map<Shape, Cost>> costs = new LinkedHashMap<>();
+    // chooseUnprofiled() per power of two below PROFILE_MIN; cleared when a cost changes
+    private final String[] unprofiled = new String[Integer.numberOfTrailingZeros(PROFILE_MIN)];
+    private volatile String lastEngine = "";
+    private volatile Profile lastProfile;
+    private volatile int lastSize;
+
+    // Priors in ns per n*log2(n). Arrays.sort finds whole runs, so it is near
+    // linear on sorted and reversed input; the merge sorts skip merges of
+    // already ordered halves, which pays off on presorted data.
+    public AdaptiveSort(int threshold) {
+        int p = cores();
+        register("SequentialMergeSort", new SequentialMergeSort(), 3.0, 0);
+        register("ParallelMergeSort", new ParallelMergeSort(threshold), 3.0 / p, 50_000);
+        register("Arrays.sort", Arrays::sort, 2.5, 0);
+        register("Arrays.parallelSort", Arrays::parallelSort, 2.5 / p, 50_000);
+        register("DuplicateAwareSort", new DuplicateAwareSort(threshold), 4.0 / p, 50_000);
+        for (Shape shape : new Shape[] { Shape.SORTED, Shape.REVERSE }) {
+            setCost("Arrays.sort", shape, 0.05, 0);
+            setCost("Arrays.parallelSort", shape, 0.05, 50_000);
+        }
+        setCost("SequentialMergeSort", Shape.PRESORTED, 1.0, 0);
+        setCost("ParallelMergeSort", Shape.PRESORTED, 1.0 / p, 50_000);
+        setCost("Arrays.sort", Shape.PRESORTED, 1.5, 0);
+        setCost("Arrays.parallelSort", Shape.PRESORTED, 1.5 / p, 50_000);
+        setCost("DuplicateAwareSort", Shape.FEW_UNIQUE, 0.3 / p, 50_000);
+    }
+
+    public AdaptiveSort() {
+        this(8192);
+    }
+
+    // Registers an engine without a prior; it is only chosen once calibrated.
+    public synchronized void register(String name, SortAlgorithm engine) {
+        register(name, engine, Double.POSITIVE_INFINITY, 0);
+    }
+
+    public synchronized void register(String name, SortAlgorithm engine, double nanosPerCompare, double fixedNanos) {
+        engines.put(name, engine);
+        Map<Shape, Cost> byShape = new EnumMap<>(Shape.class);
+        for (Shape shape : Shape.values()) byShape.put(shape, new Cost(nanosPerCompare, fixedNanos));
+        costs.put(name, byShape);
+        Arrays.fill(unprofiled, null);
+    }
+
+    public synchronized void setCost(String name, Shape shape, double nanosPerCompare, double fixedNanos) {
+        Map<Shape, Cost> byShape = costs.get(name);
+        if (byShape == null) throw new IllegalArgumentException("Unknown engine: " + name);
+        byShape.put(shape, new Cost(nanosPerCompare, fixedNanos));
+        Arrays.fill(unprofiled, null);
+    }
+
+    @Override
+    public void sort(int[] array) {
+        if (array == null || array.length <= 1) return;
+        Profile profile = array.length < PROFILE_MIN ? null : profile(array);
+        SortAlgorithm engine;
+        String name;
+        synchronized (this) {
+            name = profile == null ? unprofiledChoice(array.length) : choose(profile);
+            engine = engines.get(name);
+        }
+        lastEngine = name;
+        lastProfile = profile;
+        lastSize = array.length;
+        if (LOG.isLoggable(Level.FINE)) LOG.log(Level.FINE, "AdaptiveSort chose {0}", getLastDecision());
+        engine.sort(array);
+    }
+
+    public String getLastEngine() {
+        return lastEngine;
+    }
+
+    // Formatted on demand so sorting small arrays doesn't pay for it.
+    public String getLastDecision() {
+        Profile profile = lastProfile;
+        if (profile == null) {
+            return lastSize == 0 ? "" : lastEngine + " for n=" + lastSize + " (not profiled below " + PROFILE_MIN + ")";
+        }
+        return lastEngine + " for " + profile.shape() + " (" + profile + ")";
+    }
+
+    public synchronized String choose(Profile profile) {
+        return choose(profile.shape(), profile.size);
+    }
+
+    public synchronized String choose(Shape shape, int size) {
+        String best = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (Map.Entry<String, Map<Shape, Cost>> e : costs.entrySet()) {
+            double cost = e.getValue().get(shape).predict(size);
+            if (best == null || cost < bestCost) {
+                best = e.getKey();
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    // Comparing every engine on every shape costs about as much as sorting a
+    // few thousand elements, so the answer is kept for each power of two.
+    private String unprofiledChoice(int size) {
+        int bucket = 31 - Integer.numberOfLeadingZeros(size);
+        if (unprofiled[bucket] == null) unprofiled[bucket] = chooseUnprofiled(size);
+        return unprofiled[bucket];
+    }
+
+    // Below PROFILE_MIN the shape is unknown. Picks the engine whose cost,
+    // relative to the best engine on each shape, is lowest summed over all
+    // shapes, so cheap shapes such as sorted input count as much as random.
+    public synchronized String chooseUnprofiled(int size) {
+        Map<Shape, Double> bestOfShape = new EnumMap<>(Shape.class);
+        for (Map<Shape, Cost> byShape : costs.values()) {
+            for (Map.Entry<Shape, Cost> c : byShape.entrySet()) {
+                bestOfShape.merge(c.getKey(), c.getValue().predict(size), Math::min);
+            }
+        }
+        String best = null;
+        double bestScore = Double.POSITIVE_INFINITY;
+        for (Map.Entry<String, Map<Shape, Cost>> e : costs.entrySet()) {
+            double score = 0;
+            for (Map.Entry<Shape, Cost> c : e.getValue().entrySet()) {
+                score += c.getValue().predict(size) / Math.max(1, bestOfShape.get(c.getKey()));
+            }
+            if (best == null || score < bestScore) {
+                best = e.getKey();
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    // Fits the cost model of every engine on every shape from timings of every
+    // ArrayGenerator pattern at two sizes; a pattern counts toward the shape
+    // its data profiles as, so e.g. "Sawtooth" and "Organ Pipe" refine the
+    // presorted cells along with "Nearly Sorted". The first pass only warms
+    // up: cold timings were off by up to 4x and flipped decisions between runs.
+    public void calibrate(int smallSize, int largeSize, long seed) {
+        Map<String, SortAlgorithm> snapshot;
+        synchronized (this) {
+            snapshot = new LinkedHashMap<>(engines);
+        }
+        Map<String, Map<Shape, List<double[]>>> points = new LinkedHashMap<>();
+        for (int pass = 0; pass < 2; pass++) {
+            for (String pattern : ArrayGenerator.patternNames()) {
+                Shape shape = shapeOfPattern(pattern);
+                for (int size : new int[] { smallSize, largeSize }) {
+                    int[] input = ArrayGenerator.generate(pattern, size, seed);
+                    for (Map.Entry<String, SortAlgorithm> e : snapshot.entrySet()) {
+                        double nanos = bestOf(e.getValue(), input, pass == 0 ? 1 : 5);
+                        if (pass == 1) addPoint(points, e.getKey(), shape, size, nanos);
+                    }
+                }
+            }
+        }
+        fitAll(points);
+    }
+
+    // Refits cost cells from stored benchmark results taken on a machine with
+    // this many cores. A pattern counts toward the shape its data profiles as,
+    // and every (size, median) point of an engine on that shape enters a least
+    // squares fit; one size alone fixes a with b = 0. Returns the number of
+    // (engine, shape) cells set.
+    public int calibrate(List<ResultStore.Record> history) {
+        Map<String, Shape> shapeOf = new HashMap<>();
+        Map<String, Map<Shape, List<double[]>>> points = new LinkedHashMap<>();
+        synchronized (this) {
+            for (ResultStore.Record r : history) {
+                if (r.env.cores != cores() || r.samples.length == 0 || !engines.containsKey(r.algorithm)) continue;
+                Shape shape = shapeOf.computeIfAbsent(r.pattern, AdaptiveSort::shapeOfPattern);
+                if (shape == null) continue;
+                long[] sorted = r.samples.clone();
+                Arrays.sort(sorted);
+                addPoint(points, r.algorithm, shape, r.size, sorted[sorted.length / 2]);
+            }
+            return fitAll(points);
+        }
+    }
+
+    private static void addPoint(Map<String, Map<Shape, List<double[]>>> points, String engine, Shape shape,
+            int size, double nanos) {
+        points.computeIfAbsent(engine, k -> new EnumMap<>(Shape.class))
+                .computeIfAbsent(shape, k -> new ArrayList<>())
+                .add(new double[] { size * log2(size), nanos });
+    }
+
+    private synchronized int fitAll(Map<String, Map<Shape, List<double[]>>> points) {
+        int cells = 0;
+        for (Map.Entry<String, Map<Shape, List<double[]>>> e : points.entrySet()) {
+            for (Map.Entry<Shape, List<double[]>> s : e.getValue().entrySet()) {
+                double[] ab = fit(s.getValue());
+                setCost(e.getKey(), s.getKey(), ab[0], ab[1]);
+                LOG.log(Level.FINE, "Calibrated {0} on {1}: {2} ns/(n log n) + {3} ns",
+                        new Object[] { e.getKey(), s.getKey(), ab[0], ab[1] });
+                cells++;
+            }
+        }
+        return cells;
+    }
+
+    private static Shape shapeOfPattern(String pattern) {
+        try {
+            return profile(ArrayGenerator.generate(pattern, 1 << 16, 42)).shape();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Least squares t = a*x + b with a, b >= 0.
+    private static double[] fit(List<double[]> pts) {
+        double n = pts.size(), sx = 0, st = 0, sxx = 0, sxt = 0;
+        for (double[] p : pts) {
+            sx += p[0];
+            st += p[1];
+            sxx += p[0] * p[0];
+            sxt += p[0] * p[1];
+        }
+        double den = n * sxx - sx * sx;
+        if (den <= 1e-9 * sxx) return new double[] { st / sx, 0 };
+        double a = (n * sxt - sx * st) / den;
+        double b = (st - a * sx) / n;
+        if (a <= 0) return new double[] { st / sx, 0 };
+        if (b < 0) return new double[] { sxt / sxx, 0 };
+        return new double[] { a, b };
+    }
+
+    public static Profile profile(int[] a) {
+        int n = a.length;
+        // local order: descents inside short contiguous blocks spread over the
+        // array, and how many blocks are entirely ascending or descending
+        int descents = 0, pairs = 0, monotone = 0;
+        int blocks = Math.min(BLOCKS, Math.max(1, n / BLOCK_LEN));
+        for (int b = 0; b < blocks; b++) {
+            int start = (int) ((long) b * (n - 1) / blocks);
+            int end = Math.min(n - 1, start + BLOCK_LEN);
+            int d = 0;
+            for (int i = start; i < end; i++) {
+                if (a[i] > a[i + 1]) d++;
+            }
+            if (d == 0 || d == end - start) monotone++;
+            descents += d;
+            pairs += end - start;
+        }
+        // global order: inversions within a sample of one random element per
+        // stride, which keeps index order without aliasing periodic inputs
+        int m = Math.min(n, SAMPLE);
+        int[] sorted = new int[m];
+        int stride = n / Math.max(1, m);
+        SplittableRandom rnd = new SplittableRandom(n);
+        for (int i = 0; i < m; i++) sorted[i] = a[(int) ((long) i * n / m) + rnd.nextInt(stride)];
+        long inversions = countInversions(sorted, new int[m], 0, m);
+        // heavy hitters: values that occur at least HEAVY_COUNT times in the sample
+        int distinct = 0, heavy = 0;
+        long equal = 0;
+        for (int i = 0; i < m; ) {
+            int j = i + 1;
+            while (j < m && sorted[j] == sorted[i]) j++;
+            distinct++;
+            if (j - i >= HEAVY_COUNT) heavy += j - i;
+            equal += (long) (j - i) * (j - i - 1) / 2;
+            i = j;
+        }
+        long comparisons = (long) m * (m - 1) / 2;
+        long range = m == 0 ? 0 : (long) sorted[m - 1] - sorted[0];
+        double inversionRatio = comparisons - equal == 0 ? 0 : inversions / (double) (comparisons - equal);
+        return new Profile(n,
+                pairs == 0 ? 0 : descents / (double) pairs,
+                monotone / (double) blocks,
+                inversionRatio,
+                m, distinct,
+                m == 0 ? 0 : heavy / (double) m,
+                range);
+    }
+
+    // Merge sorts a[lo, hi) and returns the number of pairs i < j with a[i] > a[j].
+    private static long countInversions(int[] a, int[] aux, int lo, int hi) {
+        if (hi - lo < 2) return 0;
+        int mid = (lo + hi) >>> 1;
+        long count = countInversions(a, aux, lo, mid) + countInversions(a, aux, mid, hi);
+        System.arraycopy(a, lo, aux, lo, hi - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            if (aux[i] <= aux[j]) {
+                a[k++] = aux[i++];
+            } else {
+                count += mid - i;
+                a[k++] = aux[j++];
+            }
+        }
+        while (i < mid) a[k++] = aux[i++];
+        while (j < hi) a[k++] = aux[j++];
+        return count;
+    }
+
+    private static double bestOf(SortAlgorithm engine, int[] input, int reps) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            int[] a = ArrayGenerator.copy(input);
+            long t0 = System.nanoTime();
+            engine.sort(a);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+
+    private static double log2(int n) {
+        return Math.log(Math.max(2, n)) / Math.log(2);
+    }
+
+    private static int cores() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,168 @@
+package sortbenchmark;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AdaptiveSortBenchmark {
+
+    public static final String DEFAULT_STORE = "adaptive-results.tsv";
+
+    // Usage: AdaptiveSortBenchmark [sizes] [threshold] [runs] [--store file] [--history file]
+    // With --store, stored results seed the cost model after calibration and
+    // this run's fixed-engine timings are appended for the next run. These are
+    // warmed timings, so they must not share a file with SortBenchmark, whose
+    // regression check would compare them against its cold runs of the same
+    // cell; --history reads such a file for seeding without writing to it.
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        ResultStore store = null;
+        ResultStore history = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--store") && i + 1 < args.length) store = new ResultStore(Paths.get(args[++i]));
+            else if (args[i].equals("--history") && i + 1 < args.length) history = new ResultStore(Paths.get(args[++i]));
+            else positional.add(args[i]);
+        }
+        if (store != null && store.getFile().getFileName().toString().equals(ResultStore.DEFAULT_FILE)) {
+            throw new IllegalArgumentException(store.getFile() + " is SortBenchmark's store; pass it with --history"
+                    + " and give --store a separate file such as " + DEFAULT_STORE);
+        }
+        int[] sizes = { 10_000, 1_000_000 };
+        if (positional.size() > 0) {
+            sizes = Arrays.stream(positional.get(0).split(",")).mapToInt(Integer::parseInt).toArray();
+        }
+        int threshold = positional.size() > 1 ? Integer.parseInt(positional.get(1)) : 8192;
+        int runs = positional.size() > 2 ? Integer.parseInt(positional.get(2)) : 3;
+        long seed = 42;
+
+        System.out.println("----------------------------------------");
+        System.out.println("Adaptive Dispatcher Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        AdaptiveSort adaptive = new AdaptiveSort(threshold);
+        long c0 = System.nanoTime();
+        adaptive.calibrate(20_000, 200_000, seed + 1);
+        System.out.println("Calibration took " + (System.nanoTime() - c0) / 1_000_000 + " ms");
+        for (ResultStore source : new ResultStore[] { history, store }) {
+            if (source == null) continue;
+            int cells = adaptive.calibrate(source.load());
+            System.out.println("Seeded " + cells + " cost cells from " + source.getFile());
+        }
+        System.out.println();
+
+        Map<String, SortAlgorithm> fixed = new LinkedHashMap<>();
+        fixed.put("SequentialMergeSort", new SequentialMergeSort());
+        fixed.put("ParallelMergeSort", new ParallelMergeSort(threshold));
+        fixed.put("Arrays.sort", Arrays::sort);
+        fixed.put("Arrays.parallelSort", Arrays::parallelSort);
+        fixed.put("DuplicateAwareSort", new DuplicateAwareSort(threshold));
+        fixed.put("Adaptive", adaptive);
+
+        // the fixed engines were warmed by calibration; warm the dispatch path too
+        int[] warm = ArrayGenerator.generate("Random", 1 << 16, seed);
+        for (int i = 0; i < 200; i++) AdaptiveSort.profile(warm);
+        for (int i = 0; i < 5; i++) adaptive.sort(ArrayGenerator.copy(warm));
+
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (String name : fixed.keySet()) totals.put(name, 0L);
+        List<ResultStore.Record> measured = new ArrayList<>();
+        ResultStore.Environment env = ResultStore.Environment.current();
+        List<String> losses = new ArrayList<>();
+        int wins = 0, ties = 0, cells = 0, rightPicks = 0;
+
+        for (int size : sizes) {
+            for (String pattern : ArrayGenerator.patternNames()) {
+                int[] base = ArrayGenerator.generate(pattern, size, seed);
+                int[] reference = ArrayGenerator.copy(base);
+                Arrays.sort(reference);
+                StringBuilder line = new StringBuilder(String.format("%-14s n=%-9d", pattern, size));
+                Map<String, long[]> times = new LinkedHashMap<>();
+                for (String name : fixed.keySet()) times.put(name, new long[runs]);
+                // engines take turns on every run, so drift within the cell
+                // (GC, JIT, clock speed) does not favour whichever runs first
+                for (int run = 0; run < runs; run++) {
+                    for (Map.Entry<String, SortAlgorithm> e : fixed.entrySet()) {
+                        int[] a = ArrayGenerator.copy(base);
+                        long t0 = System.nanoTime();
+                        e.getValue().sort(a);
+                        times.get(e.getKey())[run] = System.nanoTime() - t0;
+                        if (!Arrays.equals(a, reference)) {
+                            System.out.println("ERROR: " + e.getKey() + " produced incorrect results.");
+                            return;
+                        }
+                    }
+                }
+                Map<String, long[]> samples = new LinkedHashMap<>();
+                long bestFixed = Long.MAX_VALUE, adaptiveTime = 0;
+                String bestName = "";
+                for (Map.Entry<String, long[]> e : times.entrySet()) {
+                    long best = Arrays.stream(e.getValue()).min().getAsLong();
+                    totals.merge(e.getKey(), best, Long::sum);
+                    line.append(String.format(" | %s=%.2f ms", shortName(e.getKey()), best / 1e6));
+                    if (e.getKey().equals("Adaptive")) {
+                        adaptiveTime = best;
+                    } else {
+                        samples.put(e.getKey(), e.getValue());
+                        if (best < bestFixed) {
+                            bestFixed = best;
+                            bestName = e.getKey();
+                        }
+                    }
+                }
+                // within 5% of the fastest fixed engine counts as a tie
+                String verdict;
+                cells++;
+                if (adaptiveTime < bestFixed * 0.95) {
+                    verdict = "win";
+                    wins++;
+                } else if (adaptiveTime <= bestFixed * 1.05) {
+                    verdict = "tie";
+                    ties++;
+                } else {
+                    verdict = String.format("loss, %.2fx slower than %s", adaptiveTime / (double) bestFixed, bestName);
+                    losses.add(String.format("%s n=%d (%.2fx vs %s)", pattern, size,
+                            adaptiveTime / (double) bestFixed, bestName));
+                }
+                // the pick was right if the chosen engine ran within 5% of the
+                // fastest; a loss after a right pick is dispatch overhead
+                long[] chosen = times.get(adaptive.getLastEngine());
+                if (chosen != null && Arrays.stream(chosen).min().getAsLong() <= bestFixed * 1.05) rightPicks++;
+                System.out.println(line);
+                System.out.println("    -> " + adaptive.getLastDecision() + " [" + verdict + "]");
+                measured.addAll(ResultStore.records(env, size, pattern, threshold, samples));
+            }
+        }
+        if (store != null) store.append(measured);
+
+        System.out.println("\nTOTAL over all patterns and sizes:");
+        for (Map.Entry<String, Long> e : totals.entrySet()) {
+            System.out.printf("%-20s %.2f ms%n", e.getKey(), e.getValue() / 1e6);
+        }
+        long bestFixed = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> e : totals.entrySet()) {
+            if (!e.getKey().equals("Adaptive")) bestFixed = Math.min(bestFixed, e.getValue());
+        }
+        System.out.println("----------------------------------------");
+        System.out.printf("Adaptive vs best single engine: %.2fx%n", bestFixed / (double) totals.get("Adaptive"));
+        System.out.println("Per pattern: " + wins + " wins, " + ties + " ties (within 5%), "
+                + losses.size() + " losses of " + cells);
+        System.out.println("Picked an engine within 5% of the fastest in " + rightPicks + " of " + cells);
+        for (String loss : losses) System.out.println("  loses on " + loss);
+    }
+
+    private static String shortName(String name) {
+        switch (name) {
+            case "SequentialMergeSort": return "seq";
+            case "ParallelMergeSort": return "par";
+            case "Arrays.sort": return "arr.sort";
+            case "Arrays.parallelSort": return "arr.pSort";
+            case "DuplicateAwareSort": return "dup";
+            default: return name.toLowerCase();
+        }
+    }
+}
@@ -1,9 +1,115 @@
 package sortbenchmark;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 public class ArrayGenerator {
+
+    // Fills a[from, to) of an array of a.length elements. Chunks are generated in
+    // parallel, each with its own generator derived from (seed, chunk index), so
+    // the output depends only on the seed and never on the thread count.
+    @FunctionalInterface
+    public interface Pattern {
+        void fill(int[] a, int from, int to, SplittableRandom rnd);
+    }
+
+    private static final int CHUNK = 1 << 16;
+    private static final int ZIPF_KEYS = 1 << 16;
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final Map<String, Pattern> PATTERNS = new LinkedHashMap<>();
+    private static double[] zipfCdf;
+
+    static {
+        register("Random", (a, from, to, rnd) -> {
+            int bound = Math.max(10, a.length * 2);
+            for (int i = from; i < to; i++) a[i] = rnd.nextInt(bound);
+        });
+        register("Reverse", (a, from, to, rnd) -> {
+            for (int i = from; i < to; i++) a[i] = a.length - i;
+        });
+        register("Sorted", (a, from, to, rnd) -> {
+            for (int i = from; i < to; i++) a[i] = i;
+        });
+        register("Nearly Sorted", (a, from, to, rnd) -> {
+            for (int i = from; i < to; i++) a[i] = i;
+            int swaps = Math.max(1, (to - from) / 100);
+            for (int s = 0; s < swaps; s++) {
+                int i = from + rnd.nextInt(to - from);
+                int j = Math.min(to - 1, i + 1 + rnd.nextInt(16));
+                int t = a[i]; a[i] = a[j]; a[j] = t;
+            }
+        });
+        register("Few Unique", (a, from, to, rnd) -> {
+            for (int i = from; i < to; i++) a[i] = rnd.nextInt(8) * 100;
+        });
+        register("Low Cardinality", (a, from, to, rnd) -> {
+            // ~90% of the elements share five status-code-like values
+            for (int i = from; i < to; i++) {
+                a[i] = rnd.nextInt(10) < 9 ? 200 + 100 * rnd.nextInt(5) : rnd.nextInt(Math.max(10, a.length));
+            }
+        });
+        register("Duplicates", (a, from, to, rnd) -> {
+            int bound = Math.max(1, (int) Math.sqrt(a.length));
+            for (int i = from; i < to; i++) a[i] = rnd.nextInt(bound);
+        });
+        register("Zipf", (a, from, to, rnd) -> {
+            double[] cdf = zipfCdf();
+            for (int i = from; i < to; i++) {
+                int k = Arrays.binarySearch(cdf, rnd.nextDouble());
+                a[i] = k >= 0 ? k : Math.min(-k - 1, cdf.length - 1);
+            }
+        });
+        register("Sawtooth", (a, from, to, rnd) -> {
+            int run = Math.max(1, a.length / 16);
+            for (int i = from; i < to; i++) a[i] = i % run;
+        });
+        register("Organ Pipe", (a, from, to, rnd) -> {
+            int half = a.length / 2;
+            for (int i = from; i < to; i++) a[i] = i < half ? i : a.length - i;
+        });
+    }
+
+    public static synchronized void register(String name, Pattern pattern) {
+        PATTERNS.put(name, pattern);
+    }
+
+    public static synchronized String[] patternNames() {
+        return PATTERNS.keySet().toArray(new String[0]);
+    }
+
+    public static int[] generate(String name, int size, long seed) {
+        Pattern pattern;
+        synchronized (ArrayGenerator.class) {
+            pattern = PATTERNS.get(name.trim());
+        }
+        if (pattern == null) throw new IllegalArgumentException("Unknown pattern: " + name);
+        return generate(pattern, size, seed);
+    }
+
+    public static int[] generate(Pattern pattern, int size, long seed) {
+        if (size <= 0) return new int[0];
+        int[] a = new int[size];
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * CHUNK;
+            int to = Math.min(size, from + CHUNK);
+            pattern.fill(a, from, to, new SplittableRandom(mix(seed, c)));
+        });
+        return a;
+    }
+
     public static int[] randomArray(int size, int maxVal) {
         if (size <= 0) return new int[0];
         int[] a = new int[size];
@@ -16,6 +122,12 @@ public class ArrayGenerator {
         return randomArray(size, Math.max(10, size * 2));
     }
 
+    public static int[] sortedArray(int size) {
+        int[] a = new int[Math.max(0, size)];
+        for (int i = 0; i < a.length; i++) a[i] = i;
+        return a;
+    }
+
     public static int[] reverseSortedArray(int size) {
         int[] a = new int[size];
         for (int i = 0; i < size; i++) a[i] = size - i;
@@ -25,5 +137,68 @@ public class ArrayGenerator {
     public static int[] copy(int[] source) {
         return source == null ? null : Arrays.copyOf(source, source.length);
     }
-}
 
+    // Production dumps are raw little-endian int32 values with no header.
+    public static int[] loadDump(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = ch.size();
+            if (bytes % Integer.BYTES != 0) {
+                throw new IOException("Dump length " + bytes + " is not a multiple of " + Integer.BYTES + ": " + file);
+            }
+            long count = bytes / Integer.BYTES;
+            if (count > Integer.MAX_VALUE - 8) {
+                throw new IOException("Dump too large for an int[]: " + count + " values");
+            }
+            int[] a = new int[(int) count];
+            // map in slices so files above 2 GB still work
+            long sliceValues = 1L << 28;
+            for (long base = 0; base < count; base += sliceValues) {
+                int n = (int) Math.min(sliceValues, count - base);
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, base * Integer.BYTES, (long) n * Integer.BYTES);
+                IntBuffer ints = map.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                int offset = (int) base;
+                IntStream.range(0, (n + CHUNK - 1) / CHUNK).parallel().forEach(c -> {
+                    int from = c * CHUNK;
+                    int len = Math.min(CHUNK, n - from);
+                    ints.duplicate().position(from).get(a, offset + from, len);
+                });
+            }
+            return a;
+        }
+    }
+
+    public static void writeDump(Path file, int[] a) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int from = 0; from < a.length; from += CHUNK) {
+                int len = Math.min(CHUNK, a.length - from);
+                buf.clear();
+                buf.asIntBuffer().put(a, from, len);
+                buf.limit(len * Integer.BYTES);
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+        }
+    }
+
+    private static synchronized double[] zipfCdf() {
+        if (zipfCdf == null) {
+            double[] cdf = new double[ZIPF_KEYS];
+            double sum = 0;
+            for (int k = 0; k < ZIPF_KEYS; k++) {
+                sum += 1.0 / Math.pow(k + 1, ZIPF_EXPONENT);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < ZIPF_KEYS; k++) cdf[k] /= sum;
+            zipfCdf = cdf;
+        }
+        return zipfCdf;
+    }
+
+    private static long mix(long seed, int chunk) {
+        long z = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,23 @@
+package sortbenchmark;
+
+import java.lang.management.ManagementFactory;
+
+// Helpers shared by the benchmark main classes.
+public final class BenchmarkUtil {
+
+    private BenchmarkUtil() {
+    }
+
+    // Bytes allocated so far by all live threads, so ForkJoin workers are
+    // included; 0 when the JVM cannot report it.
+    public static long allocatedBytes() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return 0;
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) mx;
+        long total = 0;
+        for (long bytes : sun.getThreadAllocatedBytes(mx.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,132 @@
+package sortbenchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class BlockFileBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int blockSize = args.length > 1 ? Integer.parseInt(args[1]) : SortedBlockFile.DEFAULT_BLOCK_SIZE;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+        String pattern = args.length > 3 ? args[3] : "Random";
+
+        System.out.println("----------------------------------------");
+        System.out.println("Sorted Block File Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Values: " + size + " (" + pattern + "), block size: " + blockSize
+                + ", queries: " + queries);
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        int[] data = ArrayGenerator.generate(pattern, size, 42);
+        Path dir = Files.createTempDirectory("sorted-blocks");
+        try {
+            int[] sorted = ArrayGenerator.copy(data);
+            long t0 = System.nanoTime();
+            new ParallelMergeSort(8192).sort(sorted);
+            long tSort = System.nanoTime() - t0;
+            System.out.printf("Sort (ParallelMergeSort): %.1f ms%n%n", tSort / 1e6);
+
+            System.out.println("format       write          MB/s     file size     bytes/value");
+            for (boolean compressed : new boolean[] { false, true }) {
+                Path file = dir.resolve(compressed ? "compressed.sbf" : "raw.sbf");
+                long best = Long.MAX_VALUE;
+                for (int run = 0; run < 3; run++) {
+                    t0 = System.nanoTime();
+                    SortedBlockFile.write(file, sorted, blockSize, compressed);
+                    best = Math.min(best, System.nanoTime() - t0);
+                }
+                long bytes = Files.size(file);
+                System.out.printf("%-12s %-14s %-8.0f %-13s %.2f%n", compressed ? "delta+varint" : "raw",
+                        String.format("%.1f ms", best / 1e6), size * (double) Integer.BYTES / (1 << 20) / (best / 1e9),
+                        String.format("%.1f MB", bytes / (double) (1 << 20)), bytes / (double) size);
+            }
+
+            for (boolean compressed : new boolean[] { false, true }) {
+                Path file = dir.resolve(compressed ? "compressed.sbf" : "raw.sbf");
+                try (SortedBlockFile.Reader reader = SortedBlockFile.open(file)) {
+                    System.out.println("\nQueries on " + (compressed ? "delta+varint" : "raw") + " file ("
+                            + reader.blockCount() + " blocks):");
+                    queryLatency(reader, sorted, queries);
+                }
+            }
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path p : (Iterable<Path>) files::iterator) Files.delete(p);
+            }
+            Files.delete(dir);
+        }
+        System.out.println("----------------------------------------");
+    }
+
+    private static void queryLatency(SortedBlockFile.Reader reader, int[] sorted, int queries) {
+        SplittableRandom rnd = new SplittableRandom(7);
+        int n = sorted.length;
+        long[] probes = new long[queries];
+        for (int q = 0; q < queries; q++) probes[q] = sorted[rnd.nextInt(n)] + rnd.nextInt(3) - 1;
+
+        // warmup, checked against the in-memory array
+        for (int q = 0; q < Math.min(queries, 20_000); q++) {
+            long expected = lowerBound(sorted, probes[q]);
+            if (reader.rank(probes[q]) != expected) {
+                System.out.println("ERROR: rank(" + probes[q] + ") = " + reader.rank(probes[q]) + ", expected " + expected);
+                return;
+            }
+            if (expected < n && reader.get(expected) != sorted[(int) expected]) {
+                System.out.println("ERROR: get(" + expected + ") differs");
+                return;
+            }
+        }
+
+        long[] rankTimes = new long[queries];
+        long[] getTimes = new long[queries];
+        long[] scanTimes = new long[queries];
+        long[] memTimes = new long[queries];
+        long sink = 0;
+        for (int q = 0; q < queries; q++) {
+            long t0 = System.nanoTime();
+            long r = reader.rank(probes[q]);
+            rankTimes[q] = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            sink += reader.get(Math.min(r, n - 1));
+            getTimes[q] = System.nanoTime() - t0;
+
+            // range of about 100 values starting at the probe
+            long to = sorted[(int) Math.min(r + 100, n - 1)];
+            long[] total = new long[1];
+            t0 = System.nanoTime();
+            reader.scan(probes[q], to, v -> total[0] += v);
+            scanTimes[q] = System.nanoTime() - t0;
+            sink += total[0];
+
+            t0 = System.nanoTime();
+            sink += lowerBound(sorted, probes[q]);
+            memTimes[q] = System.nanoTime() - t0;
+        }
+        print("rank(value)", rankTimes);
+        print("get(rank)", getTimes);
+        print("scan ~100 values", scanTimes);
+        print("in-memory rank", memTimes);
+        if (sink == 42) System.out.println();
+    }
+
+    private static long lowerBound(int[] a, long value) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void print(String name, long[] times) {
+        long[] s = times.clone();
+        Arrays.sort(s);
+        System.out.printf("  %-18s p50=%6d ns  p99=%7d ns%n", name, s[s.length / 2], s[(int) (s.length * 0.99)]);
+    }
+}
@@ -0,0 +1,491 @@
+package sortbenchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Sort engine for inputs dominated by a few distinct values. A sample decides
+// the path: with few distinct values a parallel counting pass collects
+// (value, count) pairs and the array is refilled from them; with many repeats
+// but a long tail of values seen only once in the sample (so far more distinct
+// values in the whole array) a parallel three-way quicksort collapses equal
+// keys in one partition step; otherwise the input goes to the fallback engine.
+public class DuplicateAwareSort implements SortAlgorithm {
+
+    private static final int SAMPLE = 1024;
+    private static final int INSERTION_SORT_LIMIT = 32;
+
+    public static final class Groups {
+        public final int[] values;
+        public final long[] counts;
+
+        Groups(int[] values, long[] counts) {
+            this.values = values;
+            this.counts = counts;
+        }
+
+        public int size() {
+            return values.length;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int maxDistinct;
+    private final SortAlgorithm fallback;
+
+    public DuplicateAwareSort(int threshold, int parallelism, int maxDistinct) {
+        this.threshold = Math.max(INSERTION_SORT_LIMIT, threshold);
+        this.maxDistinct = Math.max(1, maxDistinct);
+        if (parallelism > 0) this.pool = new ForkJoinPool(parallelism);
+        else this.pool = ForkJoinPool.commonPool();
+        this.fallback = new ParallelMergeSort(threshold, pool);
+    }
+
+    public DuplicateAwareSort(int threshold) {
+        this(threshold, 0, 4096);
+    }
+
+    @Override
+    public void sort(int[] array) {
+        sortAndCount(array, false);
+    }
+
+    // Sorts the array and returns its distinct values with their counts.
+    public Groups sortAndCount(int[] array) {
+        return sortAndCount(array, true);
+    }
+
+    private Groups sortAndCount(int[] array, boolean wantGroups) {
+        if (array == null || array.length == 0) return new Groups(new int[0], new long[0]);
+        int[] sampleCounts = sampleCounts(array);
+        int sampleDistinct = sampleCounts[0];
+        int sampled = Math.min(array.length, SAMPLE);
+        boolean repetitive = sampleDistinct <= sampled * 3 / 4;
+        if (repetitive && estimateDistinct(array.length, sampled, sampleCounts) <= maxDistinct) {
+            int chunk = Math.max(threshold, 1 << 16);
+            Groups groups = pool.invoke(new CountTask(array, 0, array.length, maxDistinct, chunk,
+                    new AtomicBoolean()));
+            if (groups != null) {
+                pool.invoke(new FillTask(array, groups, prefixOffsets(groups.counts), 0, groups.size(), threshold));
+                return groups;
+            }
+        }
+        if (repetitive) {
+            pool.invoke(new ThreeWayQuickSortTask(array, 0, array.length - 1, threshold, depthLimit(array.length),
+                    blocks(array.length)));
+        } else {
+            fallback.sort(array);
+        }
+        return wantGroups ? pool.invoke(new RunCountTask(array, 0, array.length, threshold)) : null;
+    }
+
+    // {distinct values, values seen exactly once} in a sample of one random
+    // element per stride; a fixed stride aliases with periodic inputs such as
+    // "Sawtooth" and sees the same few values over and over.
+    private static int[] sampleCounts(int[] a) {
+        int m = Math.min(a.length, SAMPLE);
+        int[] sample = new int[m];
+        int stride = a.length / m;
+        SplittableRandom rnd = new SplittableRandom(a.length);
+        for (int i = 0; i < m; i++) sample[i] = a[(int) ((long) i * a.length / m) + rnd.nextInt(stride)];
+        Arrays.sort(sample);
+        int distinct = 0, singletons = 0;
+        for (int i = 0; i < m; ) {
+            int j = i + 1;
+            while (j < m && sample[j] == sample[i]) j++;
+            distinct++;
+            if (j - i == 1) singletons++;
+            i = j;
+        }
+        return new int[] { distinct, singletons };
+    }
+
+    // Singletons make up about the share of the array held by values the
+    // sample missed (Good-Turing), and those are mostly distinct as well.
+    private static long estimateDistinct(int n, int sampled, int[] sampleCounts) {
+        if (sampled == n) return sampleCounts[0];
+        return sampleCounts[0] + (long) sampleCounts[1] * n / sampled;
+    }
+
+    private static long[] prefixOffsets(long[] counts) {
+        long[] offsets = new long[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) offsets[i + 1] = offsets[i] + counts[i];
+        return offsets;
+    }
+
+    private int blocks(int n) {
+        int parallelism = pool.getParallelism();
+        if (parallelism <= 1) return 1;
+        return (int) Math.max(1, Math.min(n / threshold, 4L * parallelism));
+    }
+
+    private static int depthLimit(int n) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(n));
+    }
+
+    // Open-addressing (value -> count) table per chunk; null as soon as any chunk
+    // sees more than maxDistinct values, which also stops the other chunks.
+    private static class CountTask extends RecursiveTask<Groups> {
+        private final int[] a;
+        private final int from;
+        private final int to;
+        private final int maxDistinct;
+        private final int threshold;
+        private final AtomicBoolean overflow;
+
+        CountTask(int[] a, int from, int to, int maxDistinct, int threshold, AtomicBoolean overflow) {
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.maxDistinct = maxDistinct;
+            this.threshold = threshold;
+            this.overflow = overflow;
+        }
+
+        @Override
+        protected Groups compute() {
+            if (overflow.get()) return null;
+            if (to - from <= threshold) {
+                Groups groups = countChunk();
+                if (groups == null) overflow.set(true);
+                return groups;
+            }
+            int mid = (from + to) >>> 1;
+            CountTask right = new CountTask(a, mid, to, maxDistinct, threshold, overflow);
+            right.fork();
+            Groups left = new CountTask(a, from, mid, maxDistinct, threshold, overflow).compute();
+            Groups r = right.join();
+            if (left == null || r == null) return null;
+            Groups combined = combine(left, r);
+            if (combined == null) overflow.set(true);
+            return combined;
+        }
+
+        private Groups countChunk() {
+            int capacity = Integer.highestOneBit(Math.min(maxDistinct, to - from) * 2 - 1) << 1;
+            int mask = capacity - 1;
+            int shift = 32 - Integer.numberOfTrailingZeros(capacity);
+            int[] keys = new int[capacity];
+            long[] counts = new long[capacity];
+            boolean[] used = new boolean[capacity];
+            int distinct = 0;
+            for (int i = from; i < to; i++) {
+                int v = a[i];
+                int h = (v * 0x9E3779B9) >>> shift;
+                while (used[h] && keys[h] != v) h = (h + 1) & mask;
+                if (!used[h]) {
+                    if (++distinct > maxDistinct) return null;
+                    used[h] = true;
+                    keys[h] = v;
+                }
+                counts[h]++;
+            }
+            int[] values = new int[distinct];
+            int n = 0;
+            for (int h = 0; h < capacity; h++) if (used[h]) values[n++] = keys[h];
+            Arrays.sort(values);
+            long[] sortedCounts = new long[distinct];
+            for (int h = 0; h < capacity; h++) {
+                if (used[h]) sortedCounts[Arrays.binarySearch(values, keys[h])] = counts[h];
+            }
+            return new Groups(values, sortedCounts);
+        }
+
+        private Groups combine(Groups x, Groups y) {
+            int[] values = new int[x.size() + y.size()];
+            long[] counts = new long[values.length];
+            int i = 0, j = 0, k = 0;
+            while (i < x.size() || j < y.size()) {
+                if (k == maxDistinct) return null;
+                if (j == y.size() || (i < x.size() && x.values[i] < y.values[j])) {
+                    values[k] = x.values[i];
+                    counts[k++] = x.counts[i++];
+                } else if (i == x.size() || y.values[j] < x.values[i]) {
+                    values[k] = y.values[j];
+                    counts[k++] = y.counts[j++];
+                } else {
+                    values[k] = x.values[i];
+                    counts[k++] = x.counts[i++] + y.counts[j++];
+                }
+            }
+            return new Groups(Arrays.copyOf(values, k), Arrays.copyOf(counts, k));
+        }
+    }
+
+    private static class FillTask extends RecursiveAction {
+        private final int[] a;
+        private final Groups groups;
+        private final long[] offsets;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        FillTask(int[] a, Groups groups, long[] offsets, int from, int to, int threshold) {
+            this.a = a;
+            this.groups = groups;
+            this.offsets = offsets;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && offsets[to] - offsets[from] > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new FillTask(a, groups, offsets, from, mid, threshold),
+                          new FillTask(a, groups, offsets, mid, to, threshold));
+                return;
+            }
+            if (to - from == 1 && offsets[to] - offsets[from] > threshold) {
+                // one huge group: split its range instead
+                int lo = (int) offsets[from], hi = (int) offsets[to], v = groups.values[from];
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RangeFill(a, lo, mid, v, threshold), new RangeFill(a, mid, hi, v, threshold));
+                return;
+            }
+            for (int g = from; g < to; g++) {
+                Arrays.fill(a, (int) offsets[g], (int) offsets[g + 1], groups.values[g]);
+            }
+        }
+    }
+
+    private static class RangeFill extends RecursiveAction {
+        private final int[] a;
+        private final int lo;
+        private final int hi;
+        private final int value;
+        private final int threshold;
+
+        RangeFill(int[] a, int lo, int hi, int value, int threshold) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.value = value;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                Arrays.fill(a, lo, hi, value);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RangeFill(a, lo, mid, value, threshold), new RangeFill(a, mid, hi, value, threshold));
+        }
+    }
+
+    // Groups equal runs of an already sorted array; runs crossing a chunk
+    // boundary are joined when the halves are combined.
+    private static class RunCountTask extends RecursiveTask<Groups> {
+        private final int[] a;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        RunCountTask(int[] a, int from, int to, int threshold) {
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Groups compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                RunCountTask right = new RunCountTask(a, mid, to, threshold);
+                right.fork();
+                Groups l = new RunCountTask(a, from, mid, threshold).compute();
+                Groups r = right.join();
+                boolean joined = l.values[l.size() - 1] == r.values[0];
+                int n = l.size() + r.size() - (joined ? 1 : 0);
+                int[] values = Arrays.copyOf(l.values, n);
+                long[] counts = Arrays.copyOf(l.counts, n);
+                int skip = joined ? 1 : 0;
+                if (joined) counts[l.size() - 1] += r.counts[0];
+                System.arraycopy(r.values, skip, values, l.size(), r.size() - skip);
+                System.arraycopy(r.counts, skip, counts, l.size(), r.size() - skip);
+                return new Groups(values, counts);
+            }
+            int runs = 1;
+            for (int i = from + 1; i < to; i++) if (a[i] != a[i - 1]) runs++;
+            int[] values = new int[runs];
+            long[] counts = new long[runs];
+            int g = 0;
+            values[0] = a[from];
+            for (int i = from; i < to; i++) {
+                if (a[i] != values[g]) values[++g] = a[i];
+                counts[g]++;
+            }
+            return new Groups(values, counts);
+        }
+    }
+
+    // Dijkstra three-way partitioning: keys equal to the pivot are finished after
+    // a single pass and never looked at again. The first level partitions the
+    // whole array, so it is split into blocks instead of leaving the other
+    // workers idle for a sequential pass.
+    private static class ThreeWayQuickSortTask extends RecursiveAction {
+        private final int[] a;
+        private final int lo;
+        private final int hi;
+        private final int threshold;
+        private final int depth;
+        private final int blocks;
+
+        ThreeWayQuickSortTask(int[] a, int lo, int hi, int threshold, int depth, int blocks) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+            this.depth = depth;
+            this.blocks = blocks;
+        }
+
+        @Override
+        protected void compute() {
+            // leaves are mostly the distinct tail once the heavy keys have been
+            // split off above the threshold
+            if (hi - lo + 1 <= threshold || depth == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return;
+            }
+            long bounds = blocks > 1 ? blockPartition(a, lo, hi, blocks) : partition(a, lo, hi);
+            int lt = (int) (bounds >>> 32), gt = (int) bounds;
+            invokeAll(new ThreeWayQuickSortTask(a, lo, lt - 1, threshold, depth - 1, 1),
+                      new ThreeWayQuickSortTask(a, gt + 1, hi, threshold, depth - 1, 1));
+        }
+
+        // Same result as partition, out of place: each block counts its keys
+        // below, equal to and above the pivot, prefix sums of the counts give
+        // every block its output offsets, and the blocks scatter into aux and
+        // copy their slice back in parallel.
+        private static long blockPartition(int[] a, int lo, int hi, int blocks) {
+            int pivot = median(a[lo], a[(lo + hi) >>> 1], a[hi]);
+            Blocks b = new Blocks(a, lo, hi + 1, blocks, pivot);
+            invokeAll(BlockTask.phase(b, BlockTask.COUNT));
+            int less = lo, equal = lo, greater = lo;
+            for (int k = 0; k < blocks; k++) equal += b.counts[3 * k];
+            for (int k = 0; k < blocks; k++) greater += b.counts[3 * k] + b.counts[3 * k + 1];
+            int lt = equal, gt = greater - 1;
+            for (int k = 0; k < blocks; k++) {
+                int l = b.counts[3 * k], e = b.counts[3 * k + 1], g = b.counts[3 * k + 2];
+                b.counts[3 * k] = less;
+                b.counts[3 * k + 1] = equal;
+                b.counts[3 * k + 2] = greater;
+                less += l;
+                equal += e;
+                greater += g;
+            }
+            invokeAll(BlockTask.phase(b, BlockTask.SCATTER));
+            invokeAll(BlockTask.phase(b, BlockTask.COPY));
+            return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+        }
+
+        // Returns (lt << 32 | gt): a[lo..lt-1] < pivot == a[lt..gt] < a[gt+1..hi].
+        private static long partition(int[] a, int lo, int hi) {
+            int mid = (lo + hi) >>> 1;
+            int pivot = median(a[lo], a[mid], a[hi]);
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                int v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+        }
+
+        private static int median(int x, int y, int z) {
+            return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+        }
+    }
+
+    // Shared state of one block partition; counts holds (less, equal, greater)
+    // per block, turned into output offsets before the scatter.
+    private static final class Blocks {
+        final int[] a;
+        final int[] aux;
+        final int from;
+        final int to;
+        final int count;
+        final int pivot;
+        final int[] counts;
+
+        Blocks(int[] a, int from, int to, int count, int pivot) {
+            this.a = a;
+            this.aux = new int[to - from];
+            this.from = from;
+            this.to = to;
+            this.count = count;
+            this.pivot = pivot;
+            this.counts = new int[3 * count];
+        }
+
+        int start(int k) {
+            return from + (int) ((long) (to - from) * k / count);
+        }
+    }
+
+    private static class BlockTask extends RecursiveAction {
+        static final int COUNT = 0;
+        static final int SCATTER = 1;
+        static final int COPY = 2;
+
+        private final Blocks b;
+        private final int block;
+        private final int phase;
+
+        BlockTask(Blocks b, int block, int phase) {
+            this.b = b;
+            this.block = block;
+            this.phase = phase;
+        }
+
+        static List<BlockTask> phase(Blocks b, int phase) {
+            List<BlockTask> tasks = new ArrayList<>(b.count);
+            for (int k = 0; k < b.count; k++) tasks.add(new BlockTask(b, k, phase));
+            return tasks;
+        }
+
+        @Override
+        protected void compute() {
+            int[] a = b.a, aux = b.aux, c = b.counts;
+            int from = b.start(block), to = b.start(block + 1), pivot = b.pivot, base = 3 * block;
+            if (phase == COUNT) {
+                int less = 0, greater = 0;
+                for (int i = from; i < to; i++) {
+                    if (a[i] < pivot) less++;
+                    else if (a[i] > pivot) greater++;
+                }
+                c[base] = less;
+                c[base + 1] = to - from - less - greater;
+                c[base + 2] = greater;
+            } else if (phase == SCATTER) {
+                int less = c[base] - b.from, equal = c[base + 1] - b.from, greater = c[base + 2] - b.from;
+                for (int i = from; i < to; i++) {
+                    int v = a[i];
+                    if (v < pivot) aux[less++] = v;
+                    else if (v > pivot) aux[greater++] = v;
+                    else aux[equal++] = v;
+                }
+            } else {
+                System.arraycopy(aux, from - b.from, a, from, to - from);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package sortbenchmark;
+
+import java.util.Arrays;
+
+public class DuplicateSortBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String[] patterns = { "Low Cardinality", "Few Unique", "Duplicates", "Zipf", "Random" };
+
+        System.out.println("----------------------------------------");
+        System.out.println("Duplicate-Aware Sort Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Array size: " + size);
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        ParallelMergeSort par = new ParallelMergeSort(threshold);
+        DuplicateAwareSort dup = new DuplicateAwareSort(threshold);
+
+        for (String pattern : patterns) {
+            int[] base = ArrayGenerator.generate(pattern, size, 42);
+            int[] reference = ArrayGenerator.copy(base);
+            Arrays.sort(reference);
+
+            long parTotal = 0, arrParTotal = 0, dupTotal = 0, groupTotal = 0;
+            int groups = 0;
+            for (int run = 0; run < runs; run++) {
+                int[] a = ArrayGenerator.copy(base);
+                long t0 = System.nanoTime();
+                par.sort(a);
+                parTotal += System.nanoTime() - t0;
+
+                a = ArrayGenerator.copy(base);
+                t0 = System.nanoTime();
+                Arrays.parallelSort(a);
+                arrParTotal += System.nanoTime() - t0;
+
+                a = ArrayGenerator.copy(base);
+                t0 = System.nanoTime();
+                dup.sort(a);
+                dupTotal += System.nanoTime() - t0;
+                if (!Arrays.equals(a, reference)) {
+                    System.out.println("ERROR: DuplicateAwareSort produced incorrect results for " + pattern);
+                    return;
+                }
+
+                a = ArrayGenerator.copy(base);
+                t0 = System.nanoTime();
+                DuplicateAwareSort.Groups g = dup.sortAndCount(a);
+                groupTotal += System.nanoTime() - t0;
+                long counted = 0;
+                for (long c : g.counts) counted += c;
+                if (!Arrays.equals(a, reference) || counted != size) {
+                    System.out.println("ERROR: sortAndCount produced incorrect results for " + pattern);
+                    return;
+                }
+                groups = g.size();
+            }
+
+            System.out.printf("%-16s distinct=%-8d par=%-10s arr.pSort=%-10s dup=%-10s dup+count=%-10s (%.2fx vs par)%n",
+                    pattern, groups, formatNano(parTotal / runs), formatNano(arrParTotal / runs),
+                    formatNano(dupTotal / runs), formatNano(groupTotal / runs), parTotal / (double) dupTotal);
+        }
+        System.out.println("----------------------------------------");
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        return nanos / 1_000_000 + " ms";
+    }
+}
@@ -0,0 +1,189 @@
+package sortbenchmark;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+import sortbenchmark.generic.GenericParallelMergeSort;
+
+// Fork-one/compute-one-inline (the current MergeSortTask) against the previous
+// scheme that allocated both children and called invokeAll, on int[] and on
+// Integer[] with small thresholds where task overhead dominates.
+public class ForkStrategyBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int[] thresholds = args.length > 2
+                ? Arrays.stream(args[2].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[] { 16, 256, 8192 };
+
+        System.out.println("----------------------------------------");
+        System.out.println("Fork Strategy Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Array size: " + size + ", runs: " + runs);
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        int[] input = ArrayGenerator.generate("Random", size, 42);
+        int[] expected = ArrayGenerator.copy(input);
+        Arrays.sort(expected);
+        Integer[] boxed = Arrays.stream(input).boxed().toArray(Integer[]::new);
+        Comparator<Integer> comp = Integer::compare;
+
+        System.out.println("engine     threshold  strategy      time          allocated     tasks");
+        for (int threshold : thresholds) {
+            for (boolean legacy : new boolean[] { true, false }) {
+                CountingIntSort sorter = new CountingIntSort(threshold, legacy);
+                long time = 0, bytes = 0;
+                boolean ok = true;
+                for (int run = 0; run <= runs; run++) {
+                    int[] a = ArrayGenerator.copy(input);
+                    sorter.tasks.reset();
+                    long b0 = BenchmarkUtil.allocatedBytes();
+                    long t0 = System.nanoTime();
+                    sorter.sort(a);
+                    long t = System.nanoTime() - t0;
+                    long b = BenchmarkUtil.allocatedBytes() - b0;
+                    ok &= Arrays.equals(a, expected);
+                    if (run == 0) continue; // warmup
+                    time += t;
+                    bytes += b;
+                }
+                print("int[]", threshold, legacy, ok, time / runs, bytes / runs, sorter.tasks.sum());
+            }
+            for (boolean legacy : new boolean[] { true, false }) {
+                CountingGenericSort<Integer> sorter = new CountingGenericSort<>(threshold, legacy);
+                long time = 0, bytes = 0;
+                boolean ok = true;
+                for (int run = 0; run <= runs; run++) {
+                    Integer[] a = Arrays.copyOf(boxed, size);
+                    sorter.tasks.reset();
+                    long b0 = BenchmarkUtil.allocatedBytes();
+                    long t0 = System.nanoTime();
+                    sorter.sort(a, comp);
+                    long t = System.nanoTime() - t0;
+                    long b = BenchmarkUtil.allocatedBytes() - b0;
+                    for (int i = 0; i < size && ok; i++) ok = a[i] == expected[i];
+                    if (run == 0) continue;
+                    time += t;
+                    bytes += b;
+                }
+                print("Integer[]", threshold, legacy, ok, time / runs, bytes / runs, sorter.tasks.sum());
+            }
+        }
+        System.out.println("----------------------------------------");
+    }
+
+    private static void print(String engine, int threshold, boolean legacy, boolean ok, long nanos,
+            long bytes, long tasks) {
+        System.out.printf("%-10s %-10d %-13s %-13s %-13s %d%s%n", engine, threshold,
+                legacy ? "invokeAll" : "fork-one", formatNano(nanos), formatBytes(bytes), tasks,
+                ok ? "" : "  ERROR: wrong result");
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        return String.format("%.2f ms", nanos / 1e6);
+    }
+
+    private static String formatBytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static class CountingIntSort extends ParallelMergeSort {
+        final LongAdder tasks = new LongAdder();
+        private final boolean legacy;
+
+        CountingIntSort(int threshold, boolean legacy) {
+            super(threshold);
+            this.legacy = legacy;
+        }
+
+        @Override
+        protected MergeSortTask createMergeSortTask(int[] array, int[] aux, int left, int right, int threshold) {
+            tasks.increment();
+            return new Task(array, aux, left, right, threshold, this);
+        }
+
+        private static class Task extends MergeSortTask {
+            private final CountingIntSort owner;
+
+            Task(int[] a, int[] aux, int left, int right, int threshold, CountingIntSort owner) {
+                super(a, aux, left, right, threshold, null);
+                this.owner = owner;
+            }
+
+            @Override
+            protected void compute() {
+                if (!owner.legacy) {
+                    super.compute();
+                    return;
+                }
+                if (left >= right) return;
+                if (right - left + 1 <= threshold) {
+                    sequentialMergeSort(a, aux, left, right);
+                    return;
+                }
+                int mid = left + (right - left) / 2;
+                invokeAll(createSubtask(left, mid), createSubtask(mid + 1, right));
+                if (a[mid] <= a[mid + 1]) return;
+                merge(a, aux, left, mid, right);
+            }
+
+            @Override
+            protected MergeSortTask createSubtask(int left, int right) {
+                owner.tasks.increment();
+                return new Task(a, aux, left, right, threshold, owner);
+            }
+        }
+    }
+
+    private static class CountingGenericSort<T> extends GenericParallelMergeSort<T> {
+        final LongAdder tasks = new LongAdder();
+        private final boolean legacy;
+
+        CountingGenericSort(int threshold, boolean legacy) {
+            super(threshold);
+            this.legacy = legacy;
+        }
+
+        @Override
+        protected MergeSortTask<T> createMergeSortTask(T[] array, T[] aux, int left, int right, int threshold,
+                Comparator<T> comp) {
+            tasks.increment();
+            return new Task<>(array, aux, left, right, threshold, comp, this);
+        }
+
+        private static class Task<T> extends MergeSortTask<T> {
+            private final CountingGenericSort<T> owner;
+
+            Task(T[] a, T[] aux, int left, int right, int threshold, Comparator<T> comp,
+                    CountingGenericSort<T> owner) {
+                super(a, aux, left, right, threshold, comp);
+                this.owner = owner;
+            }
+
+            @Override
+            protected void compute() {
+                if (!owner.legacy) {
+                    super.compute();
+                    return;
+                }
+                if (left >= right) return;
+                if (right - left + 1 <= threshold) {
+                    sequentialMergeSort(a, aux, left, right, comp);
+                    return;
+                }
+                int mid = left + (right - left) / 2;
+                invokeAll(createSubtask(left, mid), createSubtask(mid + 1, right));
+                if (comp.compare(a[mid], a[mid + 1]) <= 0) return;
+                merge(a, aux, left, mid, right, comp);
+            }
+
+            @Override
+            protected MergeSortTask<T> createSubtask(int left, int right) {
+                owner.tasks.increment();
+                return new Task<>(a, aux, left, right, threshold, comp, owner);
+            }
+        }
+    }
+}
@@ -19,12 +19,15 @@ public class GUI extends javax.swing.JFrame {
         jTextField1 = new javax.swing.JTextField();
         jTextField2 = new javax.swing.JTextField();
         jTextField4 = new javax.swing.JTextField();
+        jTextField3 = new javax.swing.JTextField();
         jLabel1 = new javax.swing.JLabel();
         jLabel2 = new javax.swing.JLabel();
         jLabel3 = new javax.swing.JLabel();
         jLabel4 = new javax.swing.JLabel();
+        jLabel8 = new javax.swing.JLabel();
         jComboBox1 = new javax.swing.JComboBox<>();
         jButton1 = new javax.swing.JButton();
+        jButton2 = new javax.swing.JButton();
         jLabel5 = new javax.swing.JLabel();
         jLabel6 = new javax.swing.JLabel();
         jPanel4 = new javax.swing.JPanel();
@@ -53,6 +56,11 @@ public class GUI extends javax.swing.JFrame {
         jTextField4.setForeground(new java.awt.Color(255, 255, 255));
         jTextField4.setBorder(javax.swing.BorderFactory.createBevelBorder(javax.swing.border.BevelBorder.RAISED, new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136)));
 
+        jTextField3.setBackground(new java.awt.Color(17, 8, 30));
+        jTextField3.setForeground(new java.awt.Color(255, 255, 255));
+        jTextField3.setToolTipText("Leave empty for a time-based seed");
+        jTextField3.setBorder(javax.swing.BorderFactory.createBevelBorder(javax.swing.border.BevelBorder.RAISED, new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136)));
+
         jLabel1.setBackground(new java.awt.Color(255, 255, 255));
         jLabel1.setFont(new java.awt.Font("Segoe UI", 0, 18)); // NOI18N
         jLabel1.setForeground(new java.awt.Color(255, 204, 255));
@@ -70,9 +78,13 @@ public class GUI extends javax.swing.JFrame {
         jLabel4.setForeground(new java.awt.Color(255, 204, 255));
         jLabel4.setText("Runs");
 
+        jLabel8.setFont(new java.awt.Font("Segoe UI", 0, 18)); // NOI18N
+        jLabel8.setForeground(new java.awt.Color(255, 204, 255));
+        jLabel8.setText("Seed");
+
         jComboBox1.setBackground(new java.awt.Color(17, 8, 30));
         jComboBox1.setForeground(new java.awt.Color(255, 255, 255));
-        jComboBox1.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "Random", "Reverse " }));
+        jComboBox1.setModel(new javax.swing.DefaultComboBoxModel<>(ArrayGenerator.patternNames()));
         jComboBox1.setBorder(javax.swing.BorderFactory.createBevelBorder(javax.swing.border.BevelBorder.RAISED, new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136)));
 
         javax.swing.GroupLayout jPanel3Layout = new javax.swing.GroupLayout(jPanel3);
@@ -108,7 +120,14 @@ public class GUI extends javax.swing.JFrame {
                     .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel3Layout.createSequentialGroup()
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, 76, Short.MAX_VALUE)
                         .addComponent(jTextField4, javax.swing.GroupLayout.PREFERRED_SIZE, 131, javax.swing.GroupLayout.PREFERRED_SIZE)
-                        .addGap(41, 41, 41))))
+                        .addGap(41, 41, 41)))
+                .addGroup(jPanel3Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addGroup(jPanel3Layout.createSequentialGroup()
+                        .addGap(11, 11, 11)
+                        .addComponent(jLabel8, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addGroup(jPanel3Layout.createSequentialGroup()
+                        .addComponent(jTextField3, javax.swing.GroupLayout.PREFERRED_SIZE, 131, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addGap(23, 23, 23))))
         );
         jPanel3Layout.setVerticalGroup(
             jPanel3Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
@@ -119,7 +138,8 @@ public class GUI extends javax.swing.JFrame {
                         .addGroup(jPanel3Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                             .addComponent(jLabel1)
                             .addComponent(jLabel2)
-                            .addComponent(jLabel3)))
+                            .addComponent(jLabel3)
+                            .addComponent(jLabel8)))
                     .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel3Layout.createSequentialGroup()
                         .addContainerGap()
                         .addComponent(jLabel4)))
@@ -127,7 +147,8 @@ public class GUI extends javax.swing.JFrame {
                 .addGroup(jPanel3Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.TRAILING)
                     .addGroup(jPanel3Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                         .addComponent(jTextField2, javax.swing.GroupLayout.PREFERRED_SIZE, 31, javax.swing.GroupLayout.PREFERRED_SIZE)
-                        .addComponent(jTextField4, javax.swing.GroupLayout.PREFERRED_SIZE, 31, javax.swing.GroupLayout.PREFERRED_SIZE))
+                        .addComponent(jTextField4, javax.swing.GroupLayout.PREFERRED_SIZE, 31, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addComponent(jTextField3, javax.swing.GroupLayout.PREFERRED_SIZE, 31, javax.swing.GroupLayout.PREFERRED_SIZE))
                     .addGroup(jPanel3Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                         .addComponent(jTextField1, javax.swing.GroupLayout.PREFERRED_SIZE, 31, javax.swing.GroupLayout.PREFERRED_SIZE)
                         .addComponent(jComboBox1, javax.swing.GroupLayout.PREFERRED_SIZE, 31, javax.swing.GroupLayout.PREFERRED_SIZE)))
@@ -145,6 +166,17 @@ public class GUI extends javax.swing.JFrame {
             }
         });
 
+        jButton2.setBackground(new java.awt.Color(74, 41, 106));
+        jButton2.setFont(new java.awt.Font("Segoe UI", 0, 24)); // NOI18N
+        jButton2.setForeground(new java.awt.Color(255, 255, 255));
+        jButton2.setText("Scaling Study");
+        jButton2.setBorder(javax.swing.BorderFactory.createBevelBorder(javax.swing.border.BevelBorder.RAISED, new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136), new java.awt.Color(113, 79, 136)));
+        jButton2.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                jButton2ActionPerformed(evt);
+            }
+        });
+
         jLabel5.setFont(new java.awt.Font("Segoe UI", 1, 18)); // NOI18N
         jLabel5.setForeground(new java.awt.Color(165, 103, 185));
         jLabel5.setText("Configuration");
@@ -166,7 +198,9 @@ public class GUI extends javax.swing.JFrame {
             .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, jPanel2Layout.createSequentialGroup()
                 .addGap(0, 0, Short.MAX_VALUE)
                 .addComponent(jButton1, javax.swing.GroupLayout.PREFERRED_SIZE, 319, javax.swing.GroupLayout.PREFERRED_SIZE)
-                .addGap(301, 301, 301))
+                .addGap(18, 18, 18)
+                .addComponent(jButton2, javax.swing.GroupLayout.PREFERRED_SIZE, 220, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(63, 63, 63))
         );
         jPanel2Layout.setVerticalGroup(
             jPanel2Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
@@ -176,7 +210,9 @@ public class GUI extends javax.swing.JFrame {
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                 .addComponent(jPanel3, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
-                .addComponent(jButton1)
+                .addGroup(jPanel2Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jButton1)
+                    .addComponent(jButton2))
                 .addContainerGap(10, Short.MAX_VALUE))
         );
 
@@ -272,6 +308,10 @@ public class GUI extends javax.swing.JFrame {
 
     }//GEN-LAST:event_jButton1ActionPerformed
 
+    private void jButton2ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton2ActionPerformed
+        startScalingStudy();
+    }//GEN-LAST:event_jButton2ActionPerformed
+
     public static void main(String args[]) {
         /* Set the Nimbus look and feel */
         //<editor-fold defaultstate="collapsed" desc=" Look and feel setting code (optional) ">
@@ -305,6 +345,7 @@ public class GUI extends javax.swing.JFrame {
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton jButton1;
+    private javax.swing.JButton jButton2;
     private javax.swing.JComboBox<String> jComboBox1;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;
@@ -313,6 +354,7 @@ public class GUI extends javax.swing.JFrame {
     private javax.swing.JLabel jLabel5;
     private javax.swing.JLabel jLabel6;
     private javax.swing.JLabel jLabel7;
+    private javax.swing.JLabel jLabel8;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JPanel jPanel2;
     private javax.swing.JPanel jPanel3;
@@ -321,6 +363,7 @@ public class GUI extends javax.swing.JFrame {
     private javax.swing.JTextArea jTextArea2;
     private javax.swing.JTextField jTextField1;
     private javax.swing.JTextField jTextField2;
+    private javax.swing.JTextField jTextField3;
     private javax.swing.JTextField jTextField4;
     // End of variables declaration//GEN-END:variables
 
@@ -334,9 +377,9 @@ public class GUI extends javax.swing.JFrame {
             jTextArea2.append("Running benchmark...\n");
             jTextArea2.append("--------------------------------------\n");
 
-            int[] base = "Reverse".equalsIgnoreCase(pattern)
-                    ? ArrayGenerator.reverseSortedArray(size)
-                    : ArrayGenerator.randomArray(size);
+            long seed = readSeed();
+            jTextArea2.append("Pattern: " + pattern + " (seed " + seed + ")\n");
+            int[] base = ArrayGenerator.generate(pattern, size, seed);
 
             int show = Math.min(size, 500);
             int[] vizArray = java.util.Arrays.copyOf(base, show);
@@ -357,8 +400,79 @@ public class GUI extends javax.swing.JFrame {
                 SortBenchmark sb
                         = new SortBenchmark(vizArray.length, threshold, runs, pattern, vizArray, panel);
                 String result = sb.run();
-                jTextArea2.append(result);
-                jTextArea2.setCaretPosition(jTextArea2.getDocument().getLength());
+                // the visualized run is slowed by its listener, so the baseline
+                // store gets a separate headless run on the full array
+                SortBenchmark full = new SortBenchmark(size, threshold, runs, pattern, base, null);
+                if (sb.isCorrect()) {
+                    result += full.run();
+                    if (full.isCorrect()) {
+                        try {
+                            result += full.checkAndStore(new ResultStore(), new RegressionDetector());
+                        } catch (java.io.IOException | RuntimeException e) {
+                            result += "Could not update result store: " + e.getMessage() + "\n";
+                        }
+                    }
+                }
+                String report = result;
+                boolean failed = !sb.isCorrect() || !full.isCorrect() || full.isRegressed();
+                SwingUtilities.invokeLater(() -> {
+                    jTextArea2.setBackground(failed ? new java.awt.Color(144, 34, 54) : new java.awt.Color(81, 34, 144));
+                    jTextArea2.append(report);
+                    jTextArea2.setCaretPosition(jTextArea2.getDocument().getLength());
+                });
+            }).start();
+
+        } catch (Exception e) {
+            jTextArea2.append("Error: Invalid input!\n");
+        }
+    }
+
+    // An empty seed field means a new time-based seed for every run.
+    private long readSeed() {
+        String text = jTextField3.getText().trim();
+        return text.isEmpty() ? System.currentTimeMillis() : Long.parseLong(text);
+    }
+
+    // Strong scaling on the configured size, weak scaling on size / cores per
+    // worker; results are plotted and exported to scaling-study.csv.
+    private void startScalingStudy() {
+        try {
+            int size = Integer.parseInt(jTextField1.getText());
+            int threshold = Integer.parseInt(jTextField2.getText());
+            int runs = Integer.parseInt(jTextField4.getText());
+            String pattern = jComboBox1.getSelectedItem().toString().trim();
+            int cores = Runtime.getRuntime().availableProcessors();
+            long seed = readSeed();
+
+            jTextArea2.append("Running scaling study (parallelism 1.." + cores + ")...\n");
+            jTextArea2.append("--------------------------------------\n");
+
+            new Thread(() -> {
+                StringBuilder sb = new StringBuilder();
+                try {
+                    ScalingStudy study = new ScalingStudy(threshold, runs, pattern, seed);
+                    java.util.List<ScalingStudy.Level> levels = new java.util.ArrayList<>(study.strong(size, cores));
+                    levels.addAll(study.weak(Math.max(1, size / cores), cores));
+                    for (ScalingStudy.Level l : levels) sb.append(l).append("\n");
+                    java.nio.file.Path csv = java.nio.file.Paths.get("scaling-study.csv");
+                    ScalingStudy.writeCsv(csv, levels);
+                    sb.append("Exported to ").append(csv.toAbsolutePath()).append("\n");
+                    SwingUtilities.invokeLater(() -> {
+                        JFrame frame = new JFrame("Scaling Study: " + pattern + ", n=" + size);
+                        frame.add(new ScalingPlot(levels));
+                        frame.pack();
+                        frame.setLocationRelativeTo(null);
+                        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+                        frame.setVisible(true);
+                    });
+                } catch (java.io.IOException | RuntimeException e) {
+                    sb.append("Scaling study failed: ").append(e.getMessage()).append("\n");
+                }
+                sb.append("--------------------------------------\n");
+                SwingUtilities.invokeLater(() -> {
+                    jTextArea2.append(sb.toString());
+                    jTextArea2.setCaretPosition(jTextArea2.getDocument().getLength());
+                });
             }).start();
 
         } catch (Exception e) {
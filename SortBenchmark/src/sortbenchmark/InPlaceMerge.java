@@ -0,0 +1,160 @@
+package sortbenchmark;
+
+// Stable merge kernels that work inside a caller-sized buffer instead of a full
+// aux array. When the shorter side fits in the buffer it is merged through it;
+// otherwise the runs are split by binary search and the middle blocks rotated
+// (buffered symmerge), which needs no extra memory at all.
+// Ranges are half-open: [lo, mid) and [mid, hi).
+public final class InPlaceMerge {
+
+    static final int INSERTION_SORT_LIMIT = 32;
+
+    private InPlaceMerge() {
+    }
+
+    public static int defaultBufferSize(int n) {
+        return (int) Math.ceil(Math.sqrt(n));
+    }
+
+    public static void sort(int[] a, int lo, int hi, int[] buf, int bo, int bl) {
+        if (hi - lo <= INSERTION_SORT_LIMIT) {
+            insertionSort(a, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sort(a, lo, mid, buf, bo, bl);
+        sort(a, mid, hi, buf, bo, bl);
+        merge(a, lo, mid, hi, buf, bo, bl);
+    }
+
+    public static void merge(int[] a, int lo, int mid, int hi, int[] buf, int bo, int bl) {
+        while (lo < mid && mid < hi && a[mid - 1] > a[mid]) {
+            int n1 = mid - lo;
+            int n2 = hi - mid;
+            if (n1 <= bl) {
+                mergeLow(a, lo, mid, hi, buf, bo);
+                return;
+            }
+            if (n2 <= bl) {
+                mergeHigh(a, lo, mid, hi, buf, bo);
+                return;
+            }
+            int cut1, cut2;
+            if (n1 >= n2) {
+                cut1 = lo + n1 / 2;
+                cut2 = lowerBound(a, mid, hi, a[cut1]);
+            } else {
+                cut2 = mid + n2 / 2;
+                cut1 = upperBound(a, lo, mid, a[cut2]);
+            }
+            int newMid = cut1 + (cut2 - mid);
+            rotate(a, cut1, mid, cut2, buf, bo, bl);
+            // recurse into the smaller side, loop on the larger one
+            if (newMid - lo <= hi - newMid) {
+                merge(a, lo, cut1, newMid, buf, bo, bl);
+                lo = newMid;
+                mid = cut2;
+            } else {
+                merge(a, newMid, cut2, hi, buf, bo, bl);
+                hi = newMid;
+                mid = cut1;
+            }
+        }
+    }
+
+    // Returns the split of [lo, mid) + [mid, hi) into two independent merges:
+    // {cut1, cut2, newMid}, after rotating [cut1, mid) and [mid, cut2).
+    static int[] split(int[] a, int lo, int mid, int hi, int[] buf, int bo, int bl) {
+        int n1 = mid - lo;
+        int n2 = hi - mid;
+        int cut1, cut2;
+        if (n1 >= n2) {
+            cut1 = lo + n1 / 2;
+            cut2 = lowerBound(a, mid, hi, a[cut1]);
+        } else {
+            cut2 = mid + n2 / 2;
+            cut1 = upperBound(a, lo, mid, a[cut2]);
+        }
+        rotate(a, cut1, mid, cut2, buf, bo, bl);
+        return new int[] { cut1, cut2, cut1 + (cut2 - mid) };
+    }
+
+    static void mergeLow(int[] a, int lo, int mid, int hi, int[] buf, int bo) {
+        int n1 = mid - lo;
+        System.arraycopy(a, lo, buf, bo, n1);
+        int i = bo, iEnd = bo + n1, j = mid, k = lo;
+        while (i < iEnd && j < hi) {
+            if (buf[i] <= a[j]) a[k++] = buf[i++];
+            else a[k++] = a[j++];
+        }
+        while (i < iEnd) a[k++] = buf[i++];
+    }
+
+    static void mergeHigh(int[] a, int lo, int mid, int hi, int[] buf, int bo) {
+        int n2 = hi - mid;
+        System.arraycopy(a, mid, buf, bo, n2);
+        int i = mid - 1, j = bo + n2 - 1, k = hi - 1;
+        while (i >= lo && j >= bo) {
+            if (a[i] > buf[j]) a[k--] = a[i--];
+            else a[k--] = buf[j--];
+        }
+        while (j >= bo) a[k--] = buf[j--];
+    }
+
+    static void rotate(int[] a, int lo, int mid, int hi, int[] buf, int bo, int bl) {
+        int n1 = mid - lo;
+        int n2 = hi - mid;
+        if (n1 == 0 || n2 == 0) return;
+        if (n1 <= n2 && n1 <= bl) {
+            System.arraycopy(a, lo, buf, bo, n1);
+            System.arraycopy(a, mid, a, lo, n2);
+            System.arraycopy(buf, bo, a, lo + n2, n1);
+        } else if (n2 <= bl) {
+            System.arraycopy(a, mid, buf, bo, n2);
+            System.arraycopy(a, lo, a, lo + n2, n1);
+            System.arraycopy(buf, bo, a, lo, n2);
+        } else {
+            reverse(a, lo, mid);
+            reverse(a, mid, hi);
+            reverse(a, lo, hi);
+        }
+    }
+
+    static void insertionSort(int[] a, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int v = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > v) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+    }
+
+    private static void reverse(int[] a, int lo, int hi) {
+        for (int i = lo, j = hi - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private static int lowerBound(int[] a, int lo, int hi, int v) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (a[m] < v) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+
+    private static int upperBound(int[] a, int lo, int hi, int v) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (a[m] <= v) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+}
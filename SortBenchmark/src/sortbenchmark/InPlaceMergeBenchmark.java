@@ -0,0 +1,70 @@
+package sortbenchmark;
+
+import java.util.Arrays;
+
+public class InPlaceMergeBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int sqrt = InPlaceMerge.defaultBufferSize(size);
+        int[] budgets = { 0, sqrt, size / 64, size / 8 };
+
+        System.out.println("----------------------------------------");
+        System.out.println("In-Place Merge Sort: Time / Memory Trade-off");
+        System.out.println("----------------------------------------");
+        System.out.println("Array size: " + size + " (" + formatBytes(4L * size) + ")");
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        int[] base = ArrayGenerator.randomArray(size);
+        int[] reference = ArrayGenerator.copy(base);
+        Arrays.sort(reference);
+
+        System.out.printf("%-46s %-14s %s%n", "Algorithm", "Extra memory", "Average time");
+        long auxTime = time(new ParallelMergeSort(threshold), base, reference, runs);
+        if (auxTime < 0) return;
+        System.out.printf("%-46s %-14s %s%n", "ParallelMergeSort (aux array)",
+                formatBytes(4L * size), formatNano(auxTime));
+
+        for (int budget : budgets) {
+            long seq = time(new InPlaceMergeSort(budget), base, reference, runs);
+            long par = time(new ParallelInPlaceMergeSort(threshold, budget), base, reference, runs);
+            if (seq < 0 || par < 0) return;
+            String label = budget == 0 ? "0" : budget == sqrt ? "sqrt(n)" : "n/" + (size / budget);
+            System.out.printf("%-46s %-14s %s%n", "InPlaceMergeSort, buffer " + label,
+                    formatBytes(4L * budget), formatNano(seq));
+            System.out.printf("%-46s %-14s %s (%.2fx of aux)%n", "ParallelInPlaceMergeSort, buffer " + label,
+                    formatBytes(4L * budget), formatNano(par), par / (double) auxTime);
+        }
+        System.out.println("----------------------------------------");
+    }
+
+    private static long time(SortAlgorithm algorithm, int[] base, int[] reference, int runs) {
+        long total = 0;
+        for (int run = 0; run < runs; run++) {
+            int[] a = ArrayGenerator.copy(base);
+            long t0 = System.nanoTime();
+            algorithm.sort(a);
+            total += System.nanoTime() - t0;
+            if (!Arrays.equals(a, reference)) {
+                System.out.println("ERROR: " + algorithm.getClass().getSimpleName() + " produced incorrect results.");
+                return -1;
+            }
+        }
+        return total / runs;
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        long ms = nanos / 1_000_000;
+        double sec = nanos / 1_000_000_000.0;
+        return ms + " ms (" + String.format("%.3f", sec) + " s)";
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
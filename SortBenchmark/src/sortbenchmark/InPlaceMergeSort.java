@@ -0,0 +1,28 @@
+package sortbenchmark;
+
+// Stable merge sort that allocates at most bufferSize ints instead of a full
+// aux array. bufferSize 0 is fully in place; a negative value means sqrt(n).
+public class InPlaceMergeSort implements SortAlgorithm {
+
+    private final int bufferSize;
+
+    public InPlaceMergeSort(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public InPlaceMergeSort() {
+        this(-1);
+    }
+
+    @Override
+    public void sort(int[] array) {
+        if (array == null || array.length <= 1) return;
+        int[] buf = new int[bufferFor(array.length, bufferSize)];
+        InPlaceMerge.sort(array, 0, array.length, buf, 0, buf.length);
+    }
+
+    static int bufferFor(int n, int bufferSize) {
+        if (bufferSize < 0) return InPlaceMerge.defaultBufferSize(n);
+        return Math.min(bufferSize, n);
+    }
+}
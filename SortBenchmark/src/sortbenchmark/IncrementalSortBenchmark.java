@@ -0,0 +1,88 @@
+package sortbenchmark;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+public class IncrementalSortBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int batches = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int threshold = args.length > 2 ? Integer.parseInt(args[2]) : 8192;
+        int queryEvery = Math.max(1, batches / 10);
+
+        System.out.println("----------------------------------------");
+        System.out.println("Incremental Sort Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Batches: " + batches + " x " + batchSize + " elements");
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        int[][] stream = new int[batches][];
+        for (int b = 0; b < batches; b++) stream[b] = ArrayGenerator.randomArray(batchSize);
+
+        // Baseline: concatenate and re-sort everything on each arrival
+        ParallelMergeSort resorter = new ParallelMergeSort(threshold);
+        int[] all = new int[0];
+        long resortIngest = 0, resortWorst = 0;
+        for (int b = 0; b < batches; b++) {
+            long t0 = System.nanoTime();
+            int[] next = Arrays.copyOf(all, all.length + batchSize);
+            System.arraycopy(stream[b], 0, next, all.length, batchSize);
+            resorter.sort(next);
+            all = next;
+            long t = System.nanoTime() - t0;
+            resortIngest += t;
+            resortWorst = Math.max(resortWorst, t);
+        }
+
+        // Incremental: sort the batch, merge runs in the background
+        long incIngest = 0, incWorst = 0, snapshotTotal = 0, iterTotal = 0;
+        int queries = 0;
+        int[] last = null;
+        try (IncrementalSorter inc = new IncrementalSorter(new ParallelMergeSort(threshold), 4, true)) {
+            for (int b = 0; b < batches; b++) {
+                long t0 = System.nanoTime();
+                inc.append(stream[b]);
+                long t = System.nanoTime() - t0;
+                incIngest += t;
+                incWorst = Math.max(incWorst, t);
+
+                if ((b + 1) % queryEvery == 0) {
+                    long q0 = System.nanoTime();
+                    last = inc.snapshot();
+                    snapshotTotal += System.nanoTime() - q0;
+
+                    q0 = System.nanoTime();
+                    PrimitiveIterator.OfInt it = inc.iterator();
+                    for (int k = 0; k < 1000 && it.hasNext(); k++) it.nextInt();
+                    iterTotal += System.nanoTime() - q0;
+                    queries++;
+                }
+            }
+            inc.awaitCompaction();
+            System.out.println("Runs after ingest: " + inc.runCount());
+            last = inc.snapshot();
+        }
+
+        if (!Arrays.equals(last, all)) {
+            System.out.println("ERROR: Incremental snapshot differs from full re-sort!\n");
+            return;
+        }
+
+        System.out.println("Re-sort per batch:  avg " + formatNano(resortIngest / batches)
+                + " | worst " + formatNano(resortWorst));
+        System.out.println("Incremental append: avg " + formatNano(incIngest / batches)
+                + " | worst " + formatNano(incWorst));
+        System.out.println("Snapshot query:     avg " + formatNano(snapshotTotal / Math.max(1, queries)));
+        System.out.println("Iterator top-1000:  avg " + formatNano(iterTotal / Math.max(1, queries)));
+        System.out.println("----------------------------------------");
+        System.out.printf("Ingest speedup: %.2fx%n", resortIngest / (double) incIngest);
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        long ms = nanos / 1_000_000;
+        double sec = nanos / 1_000_000_000.0;
+        return ms + " ms (" + String.format("%.3f", sec) + " s)";
+    }
+}
@@ -0,0 +1,203 @@
+package sortbenchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Keeps appended batches as a size-tiered hierarchy of sorted runs (LSM style).
+// Each batch is sorted on arrival, tier i holds runs of roughly fanout^i batches,
+// and a full tier is merged into one run of the next tier.
+public class IncrementalSorter implements AutoCloseable {
+
+    private final SortAlgorithm sorter;
+    private final ParallelKWayMerge merger = new ParallelKWayMerge(1 << 16);
+    private final int fanout;
+    private final ExecutorService compactor;
+    private final List<List<int[]>> tiers = new ArrayList<>();
+    private Future<?> pending;
+    private long size;
+
+    public IncrementalSorter(SortAlgorithm sorter, int fanout, boolean backgroundMerge) {
+        this.sorter = sorter;
+        this.fanout = Math.max(2, fanout);
+        this.compactor = backgroundMerge
+                ? Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "incremental-sorter-compactor");
+                    t.setDaemon(true);
+                    return t;
+                })
+                : null;
+    }
+
+    public IncrementalSorter(SortAlgorithm sorter) {
+        this(sorter, 4, true);
+    }
+
+    public IncrementalSorter() {
+        this(new ParallelMergeSort(8192), 4, true);
+    }
+
+    public void append(int[] batch) {
+        if (batch == null || batch.length == 0) return;
+        int[] run = ArrayGenerator.copy(batch);
+        sorter.sort(run);
+        synchronized (this) {
+            tier(0).add(run);
+            size += run.length;
+            if (tiers.get(0).size() < fanout) return;
+            if (compactor == null) {
+                compact();
+            } else if (pending == null || pending.isDone()) {
+                pending = compactor.submit(this::compact);
+            }
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized int runCount() {
+        int count = 0;
+        for (List<int[]> tier : tiers) count += tier.size();
+        return count;
+    }
+
+    // Merged copy of everything appended so far.
+    public int[] snapshot() {
+        return mergeRuns(runs());
+    }
+
+    // Lazily merged view over the runs present when the iterator was created.
+    public PrimitiveIterator.OfInt iterator() {
+        return new MergingIterator(runs());
+    }
+
+    // Blocks until no background merge is running and no tier is full.
+    public void awaitCompaction() throws InterruptedException {
+        if (compactor == null) return;
+        while (true) {
+            Future<?> f;
+            synchronized (this) {
+                f = pending;
+            }
+            if (f == null) return;
+            try {
+                f.get();
+            } catch (java.util.concurrent.ExecutionException e) {
+                throw new IllegalStateException("Background merge failed", e.getCause());
+            }
+            synchronized (this) {
+                if (f == pending) {
+                    if (fullTier() < 0) {
+                        pending = null;
+                        return;
+                    }
+                    pending = compactor.submit(this::compact);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (compactor != null) compactor.shutdown();
+    }
+
+    private synchronized List<int[]> runs() {
+        List<int[]> runs = new ArrayList<>();
+        for (List<int[]> tier : tiers) runs.addAll(tier);
+        return runs;
+    }
+
+    private List<int[]> tier(int level) {
+        while (tiers.size() <= level) tiers.add(new ArrayList<>());
+        return tiers.get(level);
+    }
+
+    // Runs stay visible in their tier while being merged and are swapped for the
+    // merged run atomically, so snapshots never miss or double count elements.
+    private void compact() {
+        while (true) {
+            int level;
+            List<int[]> victims;
+            synchronized (this) {
+                level = fullTier();
+                if (level < 0) return;
+                victims = new ArrayList<>(tiers.get(level).subList(0, fanout));
+            }
+            int[] merged = mergeRuns(victims);
+            synchronized (this) {
+                tiers.get(level).subList(0, fanout).clear();
+                tier(level + 1).add(merged);
+            }
+        }
+    }
+
+    private int fullTier() {
+        for (int level = 0; level < tiers.size(); level++) {
+            if (tiers.get(level).size() >= fanout) return level;
+        }
+        return -1;
+    }
+
+    protected int[] mergeRuns(List<int[]> runs) {
+        return merger.merge(runs.toArray(new int[0][]));
+    }
+
+    // Binary min-heap of run cursors; ties go to the earlier run.
+    private static class MergingIterator implements PrimitiveIterator.OfInt {
+        private final int[][] runs;
+        private final int[] pos;
+        private final int[] heap;
+        private int heapSize;
+
+        MergingIterator(List<int[]> runs) {
+            this.runs = runs.toArray(new int[0][]);
+            this.pos = new int[this.runs.length];
+            this.heap = new int[this.runs.length];
+            for (int r = 0; r < this.runs.length; r++) {
+                if (this.runs[r].length > 0) heap[heapSize++] = r;
+            }
+            for (int i = heapSize / 2 - 1; i >= 0; i--) siftDown(i);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return heapSize > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (heapSize == 0) throw new NoSuchElementException();
+            int r = heap[0];
+            int value = runs[r][pos[r]++];
+            if (pos[r] == runs[r].length) heap[0] = heap[--heapSize];
+            if (heapSize > 0) siftDown(0);
+            return value;
+        }
+
+        private boolean less(int r1, int r2) {
+            int v1 = runs[r1][pos[r1]];
+            int v2 = runs[r2][pos[r2]];
+            return v1 < v2 || (v1 == v2 && r1 < r2);
+        }
+
+        private void siftDown(int i) {
+            int r = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && less(heap[child + 1], heap[child])) child++;
+                if (!less(heap[child], r)) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = r;
+        }
+    }
+}
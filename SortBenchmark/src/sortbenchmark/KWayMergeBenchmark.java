@@ -0,0 +1,88 @@
+package sortbenchmark;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class KWayMergeBenchmark {
+
+    public static void main(String[] args) {
+        int shards = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int shardSize = args.length > 1 ? Integer.parseInt(args[1]) : 250_000;
+        int threshold = args.length > 2 ? Integer.parseInt(args[2]) : 8192;
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int total = shards * shardSize;
+
+        System.out.println("----------------------------------------");
+        System.out.println("K-Way Merge Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Shards: " + shards + " x " + shardSize + " = " + total + " elements");
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        int[][] intShards = new int[shards][];
+        long[][] longShards = new long[shards][];
+        Integer[][] boxedShards = new Integer[shards][];
+        for (int s = 0; s < shards; s++) {
+            intShards[s] = ArrayGenerator.randomArray(shardSize);
+            Arrays.sort(intShards[s]);
+            longShards[s] = new long[shardSize];
+            boxedShards[s] = new Integer[shardSize];
+            for (int i = 0; i < shardSize; i++) {
+                longShards[s][i] = (long) intShards[s][i] << 20;
+                boxedShards[s][i] = intShards[s][i];
+            }
+        }
+
+        ParallelKWayMerge merger = new ParallelKWayMerge(threshold);
+        ParallelMergeSort sorter = new ParallelMergeSort(threshold);
+
+        long mergeTotal = 0, concatTotal = 0, longTotal = 0, objTotal = 0;
+        for (int run = 1; run <= runs; run++) {
+            long t0 = System.nanoTime();
+            int[] merged = merger.merge(intShards);
+            long tMerge = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            int[] concat = new int[total];
+            for (int s = 0; s < shards; s++) System.arraycopy(intShards[s], 0, concat, s * shardSize, shardSize);
+            sorter.sort(concat);
+            long tConcat = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            long[] mergedLong = merger.merge(longShards);
+            long tLong = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            Integer[] mergedObj = merger.merge(Comparator.naturalOrder(), Arrays.asList(boxedShards), Integer[]::new);
+            long tObj = System.nanoTime() - t0;
+
+            if (!Arrays.equals(merged, concat) || mergedLong[total - 1] != (long) concat[total - 1] << 20
+                    || mergedObj[total / 2] != concat[total / 2]) {
+                System.out.println("ERROR: Results differ!\n");
+                return;
+            }
+
+            mergeTotal += tMerge;
+            concatTotal += tConcat;
+            longTotal += tLong;
+            objTotal += tObj;
+            System.out.println("Run " + run + ": k-way=" + formatNano(tMerge)
+                    + " | concat+sort=" + formatNano(tConcat)
+                    + " | long[]=" + formatNano(tLong)
+                    + " | Integer[]=" + formatNano(tObj));
+        }
+
+        System.out.println("\nAverage k-way merge (int[]):   " + formatNano(mergeTotal / runs));
+        System.out.println("Average concatenate + sort:    " + formatNano(concatTotal / runs));
+        System.out.println("Average k-way merge (long[]):  " + formatNano(longTotal / runs));
+        System.out.println("Average k-way merge (T[]):     " + formatNano(objTotal / runs));
+        System.out.println("----------------------------------------");
+        System.out.printf("Speedup (concat+sort / k-way): %.2fx%n", concatTotal / (double) mergeTotal);
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        long ms = nanos / 1_000_000;
+        double sec = nanos / 1_000_000_000.0;
+        return ms + " ms (" + String.format("%.3f", sec) + " s)";
+    }
+}
@@ -0,0 +1,148 @@
+package sortbenchmark;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Parallel variant of InPlaceMergeSort. The single bounded buffer is cut into
+// one slice per worker, plus one for a caller that runs tasks itself, so the
+// memory budget holds for the whole sort. A task borrows a slice only while
+// it runs a sequential kernel and returns it before forking, so every kernel
+// gets a whole slice however deep it sits in the recursion. Large merges are
+// split by rotation into two independent merges that run in parallel as well.
+public class ParallelInPlaceMergeSort implements SortAlgorithm {
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int bufferSize;
+
+    public ParallelInPlaceMergeSort(int threshold, int parallelism, int bufferSize) {
+        this.threshold = Math.max(InPlaceMerge.INSERTION_SORT_LIMIT, threshold);
+        this.bufferSize = bufferSize;
+        if (parallelism > 0) this.pool = new ForkJoinPool(parallelism);
+        else this.pool = ForkJoinPool.commonPool();
+    }
+
+    public ParallelInPlaceMergeSort(int threshold, int bufferSize) {
+        this(threshold, 0, bufferSize);
+    }
+
+    @Override
+    public void sort(int[] array) {
+        if (array == null || array.length <= 1) return;
+        Buffer buffer = new Buffer(InPlaceMergeSort.bufferFor(array.length, bufferSize), pool.getParallelism() + 1);
+        pool.invoke(new SortTask(array, 0, array.length, buffer, threshold));
+    }
+
+    // Equal slices of one buffer. A thread first tries the slice of its worker
+    // index and otherwise takes any free one; with none free (e.g. on a
+    // compensation thread while others block in join) it merges without a
+    // buffer.
+    protected static final class Buffer {
+        final int[] buf;
+        final int slice;
+        private final AtomicIntegerArray taken;
+
+        Buffer(int size, int slices) {
+            this.buf = new int[size];
+            this.slice = size / slices;
+            this.taken = new AtomicIntegerArray(slices);
+        }
+
+        // index of the borrowed slice, or -1 if there is none
+        int acquire() {
+            if (slice == 0) return -1;
+            int n = taken.length();
+            Thread t = Thread.currentThread();
+            int first = t instanceof ForkJoinWorkerThread ? ((ForkJoinWorkerThread) t).getPoolIndex() % n : n - 1;
+            for (int i = 0; i < n; i++) {
+                int s = (first + i) % n;
+                if (taken.get(s) == 0 && taken.compareAndSet(s, 0, 1)) return s;
+            }
+            return -1;
+        }
+
+        void release(int s) {
+            if (s >= 0) taken.set(s, 0);
+        }
+
+        int offset(int s) {
+            return s < 0 ? 0 : s * slice;
+        }
+
+        int length(int s) {
+            return s < 0 ? 0 : slice;
+        }
+    }
+
+    protected static class SortTask extends RecursiveAction {
+        protected final int[] a;
+        protected final int lo;
+        protected final int hi;
+        protected final Buffer buffer;
+        protected final int threshold;
+
+        public SortTask(int[] a, int lo, int hi, Buffer buffer, int threshold) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.buffer = buffer;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                int s = buffer.acquire();
+                try {
+                    InPlaceMerge.sort(a, lo, hi, buffer.buf, buffer.offset(s), buffer.length(s));
+                } finally {
+                    buffer.release(s);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(a, lo, mid, buffer, threshold),
+                      new SortTask(a, mid, hi, buffer, threshold));
+            new MergeTask(a, lo, mid, hi, buffer, threshold).compute();
+        }
+    }
+
+    protected static class MergeTask extends RecursiveAction {
+        protected final int[] a;
+        protected final int lo;
+        protected final int mid;
+        protected final int hi;
+        protected final Buffer buffer;
+        protected final int threshold;
+
+        public MergeTask(int[] a, int lo, int mid, int hi, Buffer buffer, int threshold) {
+            this.a = a;
+            this.lo = lo;
+            this.mid = mid;
+            this.hi = hi;
+            this.buffer = buffer;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (lo >= mid || mid >= hi || a[mid - 1] <= a[mid]) return;
+            int[] cut;
+            int s = buffer.acquire();
+            try {
+                int bo = buffer.offset(s), bl = buffer.length(s);
+                if (hi - lo <= threshold || Math.min(mid - lo, hi - mid) <= bl) {
+                    InPlaceMerge.merge(a, lo, mid, hi, buffer.buf, bo, bl);
+                    return;
+                }
+                cut = InPlaceMerge.split(a, lo, mid, hi, buffer.buf, bo, bl);
+            } finally {
+                buffer.release(s);
+            }
+            invokeAll(new MergeTask(a, lo, cut[0], cut[2], buffer, threshold),
+                      new MergeTask(a, cut[2], cut[1], hi, buffer, threshold));
+        }
+    }
+}
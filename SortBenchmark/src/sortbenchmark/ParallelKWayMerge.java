@@ -0,0 +1,333 @@
+package sortbenchmark;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+// Merges k pre-sorted runs into one sorted array. The output range is cut into
+// partitions by multi-sequence selection (exact split positions in every run for
+// a given output rank), and each partition is merged with a loser tree on the pool.
+// Equal elements keep run order, so the merge is stable.
+public class ParallelKWayMerge {
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int parallelism;
+
+    public ParallelKWayMerge(int threshold, int parallelism) {
+        this.threshold = Math.max(1, threshold);
+        if (parallelism > 0) this.pool = new ForkJoinPool(parallelism);
+        else this.pool = ForkJoinPool.commonPool();
+        this.parallelism = pool.getParallelism();
+    }
+
+    public ParallelKWayMerge(int threshold) {
+        this(threshold, 0);
+    }
+
+    public int[] merge(int[]... runs) {
+        IntRuns r = new IntRuns(runs);
+        int[] out = new int[r.total()];
+        if (out.length > 0) pool.invoke(new PartitionTask(r, out, 0, partitions(out.length)));
+        return out;
+    }
+
+    public long[] merge(long[]... runs) {
+        LongRuns r = new LongRuns(runs);
+        long[] out = new long[r.total()];
+        if (out.length > 0) pool.invoke(new PartitionTask(r, out, 0, partitions(out.length)));
+        return out;
+    }
+
+    // The output comes from generator (e.g. Integer[]::new), so runs of
+    // different subtypes of T can be merged together.
+    public <T> T[] merge(Comparator<? super T> comp, List<? extends T[]> runs, IntFunction<T[]> generator) {
+        ObjectRuns<T> r = new ObjectRuns<>(List.copyOf(runs), comp);
+        T[] out = generator.apply(r.total());
+        if (out.length > 0) pool.invoke(new PartitionTask(r, out, 0, partitions(out.length)));
+        return out;
+    }
+
+    private int partitions(int total) {
+        long p = Math.min(total / threshold, 4L * parallelism);
+        return (int) Math.max(1, p);
+    }
+
+    private static class PartitionTask extends RecursiveAction {
+        private final Runs runs;
+        private final Object out;
+        private final int from;
+        private final int to;
+        private final int count;
+
+        PartitionTask(Runs runs, Object out, int from, int count) {
+            this(runs, out, from, count, count);
+        }
+
+        private PartitionTask(Runs runs, Object out, int from, int to, int count) {
+            this.runs = runs;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                long total = runs.total();
+                int lo = (int) (total * from / count);
+                int hi = (int) (total * to / count);
+                if (lo < hi) runs.mergeRange(runs.split(lo), runs.split(hi), out, lo);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PartitionTask(runs, out, from, mid, count),
+                      new PartitionTask(runs, out, mid, to, count));
+        }
+    }
+
+    // Element order is (value, run index, position), which makes every element's
+    // global rank unique and the selection exact even with duplicates.
+    private abstract static class Runs {
+        protected final int[] lengths;
+        private final int total;
+
+        Runs(int[] lengths) {
+            this.lengths = lengths;
+            long sum = 0;
+            for (int len : lengths) sum += len;
+            if (sum > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Merged size too large for an array: " + sum);
+            }
+            this.total = (int) sum;
+        }
+
+        int total() {
+            return total;
+        }
+
+        // compares element p of run i with element q of run j by value only
+        abstract int compare(int i, int p, int j, int q);
+
+        // Stores element p of run i at out[outPos]; primitive runs return the
+        // key of the element after it, so advancing a run is a single call.
+        abstract long copy(int i, int p, Object out, int outPos);
+
+        // elements of run i strictly less than / not greater than element (j, p)
+        private int lower(int i, int j, int p) {
+            int lo = 0, hi = lengths[i];
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (compare(i, m, j, p) < 0) lo = m + 1;
+                else hi = m;
+            }
+            return lo;
+        }
+
+        private int upper(int i, int j, int p) {
+            int lo = 0, hi = lengths[i];
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (compare(i, m, j, p) <= 0) lo = m + 1;
+                else hi = m;
+            }
+            return lo;
+        }
+
+        private long rank(int j, int p) {
+            long rank = p;
+            for (int i = 0; i < lengths.length; i++) {
+                if (i < j) rank += upper(i, j, p);
+                else if (i > j) rank += lower(i, j, p);
+            }
+            return rank;
+        }
+
+        int[] split(int r) {
+            int k = lengths.length;
+            int[] pos = new int[k];
+            if (r >= total) return lengths.clone();
+            for (int j = 0; j < k; j++) {
+                int lo = 0, hi = lengths[j] - 1, found = -1;
+                while (lo <= hi) {
+                    int p = (lo + hi) >>> 1;
+                    long rank = rank(j, p);
+                    if (rank == r) { found = p; break; }
+                    if (rank < r) lo = p + 1;
+                    else hi = p - 1;
+                }
+                if (found < 0) continue;
+                for (int i = 0; i < k; i++) {
+                    if (i < j) pos[i] = upper(i, j, found);
+                    else if (i == j) pos[i] = found;
+                    else pos[i] = lower(i, j, found);
+                }
+                return pos;
+            }
+            throw new IllegalStateException("No element of rank " + r + "; are the runs sorted?");
+        }
+
+        // Head of run i as a long key for primitive runs, whose loser tree then
+        // compares cached keys without calling back into the subclass.
+        long key(int i, int p) {
+            throw new UnsupportedOperationException();
+        }
+
+        boolean primitive() {
+            return false;
+        }
+
+        // Loser tree over the runs: tree[0] holds the current winner, the inner
+        // nodes the losers of each match on the path.
+        void mergeRange(int[] from, int[] to, Object out, int outPos) {
+            int k = lengths.length;
+            int[] pos = from;
+            long[] keys = null;
+            if (primitive()) {
+                keys = new long[k];
+                for (int i = 0; i < k; i++) if (pos[i] < to[i]) keys[i] = key(i, pos[i]);
+            }
+            int[] tree = new int[k];
+            Arrays.fill(tree, -1);
+            for (int s = k - 1; s >= 0; s--) init(tree, pos, to, keys, s);
+            int end = outPos;
+            for (int i = 0; i < k; i++) end += to[i] - from[i];
+            for (int n = outPos; n < end; n++) {
+                int w = tree[0];
+                long next = copy(w, pos[w]++, out, n);
+                if (keys != null) keys[w] = next;
+                // replay w's path, kept inline because this is the hot loop
+                int s = w;
+                for (int t = (s + k) >>> 1; t > 0; t >>>= 1) {
+                    if (beats(tree[t], s, pos, to, keys)) {
+                        int tmp = tree[t]; tree[t] = s; s = tmp;
+                    }
+                }
+                tree[0] = s;
+            }
+        }
+
+        private boolean beats(int a, int b, int[] pos, int[] to, long[] keys) {
+            if (pos[a] >= to[a]) return false;
+            if (pos[b] >= to[b]) return true;
+            int c = keys != null ? Long.compare(keys[a], keys[b]) : compare(a, pos[a], b, pos[b]);
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        // plays s up from its leaf until it finds an empty node to wait in
+        private void init(int[] tree, int[] pos, int[] to, long[] keys, int s) {
+            for (int t = (s + tree.length) >>> 1; t > 0; t >>>= 1) {
+                if (tree[t] < 0) { tree[t] = s; return; }
+                if (beats(tree[t], s, pos, to, keys)) {
+                    int tmp = tree[t]; tree[t] = s; s = tmp;
+                }
+            }
+            tree[0] = s;
+        }
+    }
+
+    private static int[] lengthsOf(Object[] runs) {
+        int[] lengths = new int[runs.length];
+        for (int i = 0; i < runs.length; i++) lengths[i] = Array.getLength(runs[i]);
+        return lengths;
+    }
+
+    private static class IntRuns extends Runs {
+        private final int[][] runs;
+
+        IntRuns(int[][] runs) {
+            super(lengthsOf(runs));
+            this.runs = runs;
+        }
+
+        @Override
+        int compare(int i, int p, int j, int q) {
+            return Integer.compare(runs[i][p], runs[j][q]);
+        }
+
+        @Override
+        long copy(int i, int p, Object out, int outPos) {
+            int[] run = runs[i];
+            ((int[]) out)[outPos] = run[p];
+            return p + 1 < run.length ? run[p + 1] : 0;
+        }
+
+        @Override
+        long key(int i, int p) {
+            return runs[i][p];
+        }
+
+        @Override
+        boolean primitive() {
+            return true;
+        }
+
+        @Override
+        void mergeRange(int[] from, int[] to, Object out, int outPos) {
+            // two runs go through the same two-way merge kernel as ParallelMergeSort
+            if (runs.length == 2) {
+                ParallelMergeSort.merge(runs[0], from[0], to[0], runs[1], from[1], to[1], (int[]) out, outPos);
+            } else {
+                super.mergeRange(from, to, out, outPos);
+            }
+        }
+    }
+
+    private static class LongRuns extends Runs {
+        private final long[][] runs;
+
+        LongRuns(long[][] runs) {
+            super(lengthsOf(runs));
+            this.runs = runs;
+        }
+
+        @Override
+        int compare(int i, int p, int j, int q) {
+            return Long.compare(runs[i][p], runs[j][q]);
+        }
+
+        @Override
+        long copy(int i, int p, Object out, int outPos) {
+            long[] run = runs[i];
+            ((long[]) out)[outPos] = run[p];
+            return p + 1 < run.length ? run[p + 1] : 0;
+        }
+
+        @Override
+        long key(int i, int p) {
+            return runs[i][p];
+        }
+
+        @Override
+        boolean primitive() {
+            return true;
+        }
+    }
+
+    private static class ObjectRuns<T> extends Runs {
+        private final List<T[]> runs;
+        private final Comparator<? super T> comp;
+
+        ObjectRuns(List<T[]> runs, Comparator<? super T> comp) {
+            super(lengthsOf(runs.toArray()));
+            this.runs = runs;
+            this.comp = comp;
+        }
+
+        @Override
+        int compare(int i, int p, int j, int q) {
+            return comp.compare(runs.get(i)[p], runs.get(j)[q]);
+        }
+
+        @Override
+        long copy(int i, int p, Object out, int outPos) {
+            ((Object[]) out)[outPos] = runs.get(i)[p];
+            return 0;
+        }
+    }
+}
@@ -25,6 +25,13 @@ public class ParallelMergeSort implements SortAlgorithm {
         this(threshold, 0, null);
     }
 
+    // Runs on a caller-owned pool, e.g. to read its steal count afterwards.
+    public ParallelMergeSort(int threshold, ForkJoinPool pool) {
+        this.threshold = Math.max(1, threshold);
+        this.listener = null;
+        this.pool = pool;
+    }
+
     @Override
     public void sort(int[] array) {
         if (array == null || array.length <= 1) return;
@@ -36,6 +43,25 @@ public class ParallelMergeSort implements SortAlgorithm {
         return new MergeSortTask(array, aux, left, right, threshold, listener);
     }
 
+    // Merges x[xFrom, xTo) and y[yFrom, yTo) into out starting at outPos; on
+    // ties x comes first. Shared with ParallelKWayMerge's two-run case.
+    static void merge(int[] x, int xFrom, int xTo, int[] y, int yFrom, int yTo, int[] out, int outPos) {
+        int i = xFrom, j = yFrom, k = outPos;
+        while (i < xTo && j < yTo) {
+            int a = x[i], b = y[j];
+            if (a <= b) {
+                out[k] = a;
+                i++;
+            } else {
+                out[k] = b;
+                j++;
+            }
+            k++;
+        }
+        while (i < xTo) out[k++] = x[i++];
+        while (j < yTo) out[k++] = y[j++];
+    }
+
     protected static class MergeSortTask extends RecursiveAction {
         protected final int[] a;
         protected final int[] aux;
@@ -56,18 +82,29 @@ public class ParallelMergeSort implements SortAlgorithm {
 
         @Override
         protected void compute() {
-            if (left >= right) return;
-            int length = right - left + 1;
+            sortRange(left, right);
+        }
+
+        // Forks only the right half and sorts the left half on this worker
+        // without a task object, so each split allocates one task instead of two.
+        protected void sortRange(int lo, int hi) {
+            if (lo >= hi) return;
+            int length = hi - lo + 1;
             if (length <= threshold) {
-                sequentialMergeSort(a, aux, left, right);
+                sequentialMergeSort(a, aux, lo, hi);
                 return;
             }
-            int mid = left + (right - left) / 2;
-            MergeSortTask leftTask  = new MergeSortTask(a, aux, left, mid, threshold, listener);
-            MergeSortTask rightTask = new MergeSortTask(a, aux, mid + 1, right, threshold, listener);
-            invokeAll(leftTask, rightTask);
+            int mid = lo + (hi - lo) / 2;
+            MergeSortTask rightTask = createSubtask(mid + 1, hi);
+            rightTask.fork();
+            sortRange(lo, mid);
+            rightTask.join();
             if (a[mid] <= a[mid + 1]) return;
-            merge(a, aux, left, mid, right);
+            merge(a, aux, lo, mid, hi);
+        }
+
+        protected MergeSortTask createSubtask(int left, int right) {
+            return new MergeSortTask(a, aux, left, right, threshold, listener);
         }
 
         protected void sequentialMergeSort(int[] a, int[] aux, int left, int right) {
@@ -81,6 +118,10 @@ public class ParallelMergeSort implements SortAlgorithm {
 
         protected void merge(int[] a, int[] aux, int left, int mid, int right) {
             System.arraycopy(a, left, aux, left, right - left + 1);
+            if (listener == null) {
+                ParallelMergeSort.merge(aux, left, mid + 1, aux, mid + 1, right + 1, a, left);
+                return;
+            }
             int i = left;
             int j = mid + 1;
             int k = left;
@@ -0,0 +1,134 @@
+package sortbenchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Compares new samples of each cell with the pooled samples of its most recent
+// stored runs. A cell regresses when its median is slower by more than
+// maxRegression AND a one-sided Mann-Whitney U test says the slowdown is
+// significant at alpha, so one noisy run does not fail the build. When there
+// are too few samples for the test to ever reach alpha (1 run against a
+// window of 5 bottoms out at p=0.12), the threshold alone decides.
+public class RegressionDetector {
+
+    public static final class Finding {
+        public final String algorithm;
+        public final double baselineMedian;
+        public final double currentMedian;
+        public final double pValue;
+        public final boolean regressed;
+        public final int baselineSamples;
+        // false when the samples were too few for the test and only the threshold applied
+        public final boolean tested;
+
+        Finding(String algorithm, double baselineMedian, double currentMedian, double pValue,
+                boolean regressed, int baselineSamples, boolean tested) {
+            this.algorithm = algorithm;
+            this.baselineMedian = baselineMedian;
+            this.currentMedian = currentMedian;
+            this.pValue = pValue;
+            this.regressed = regressed;
+            this.baselineSamples = baselineSamples;
+            this.tested = tested;
+        }
+
+        public double ratio() {
+            return currentMedian / baselineMedian;
+        }
+
+        @Override
+        public String toString() {
+            if (baselineSamples == 0) return String.format("%-20s no baseline yet", algorithm);
+            String test = tested ? String.format("p=%.3f", pValue)
+                    : "too few samples to test, threshold only";
+            return String.format("%-20s %+.1f%% (median %.2f ms -> %.2f ms, %s)%s", algorithm,
+                    (ratio() - 1) * 100, baselineMedian / 1e6, currentMedian / 1e6, test,
+                    regressed ? "  REGRESSION" : "");
+        }
+    }
+
+    private final double maxRegression;
+    private final double alpha;
+    private final int window;
+
+    public RegressionDetector(double maxRegression, double alpha, int window) {
+        this.maxRegression = maxRegression;
+        this.alpha = alpha;
+        this.window = Math.max(1, window);
+    }
+
+    public RegressionDetector() {
+        this(0.10, 0.05, 5);
+    }
+
+    public List<Finding> check(List<ResultStore.Record> current, List<ResultStore.Record> history) {
+        List<Finding> findings = new ArrayList<>();
+        for (ResultStore.Record cell : current) {
+            List<ResultStore.Record> matches = new ArrayList<>();
+            for (ResultStore.Record old : history) if (old.sameCell(cell)) matches.add(old);
+            List<ResultStore.Record> recent = matches.subList(Math.max(0, matches.size() - window), matches.size());
+            long[] baseline = recent.stream().flatMapToLong(r -> Arrays.stream(r.samples)).toArray();
+            if (baseline.length == 0 || cell.samples.length == 0) {
+                findings.add(new Finding(cell.algorithm, 0, median(cell.samples), 1, false, 0, false));
+                continue;
+            }
+            double before = median(baseline);
+            double after = median(cell.samples);
+            double p = mannWhitneyGreater(cell.samples, baseline);
+            boolean tested = smallestPValue(cell.samples.length, baseline.length) < alpha;
+            boolean regressed = after > before * (1 + maxRegression) && (p < alpha || !tested);
+            findings.add(new Finding(cell.algorithm, before, after, p, regressed, baseline.length, tested));
+        }
+        return findings;
+    }
+
+    public static boolean anyRegressed(List<Finding> findings) {
+        for (Finding f : findings) if (f.regressed) return true;
+        return false;
+    }
+
+    static double median(long[] samples) {
+        if (samples.length == 0) return 0;
+        long[] s = Arrays.copyOf(samples, samples.length);
+        Arrays.sort(s);
+        int m = s.length / 2;
+        return s.length % 2 == 1 ? s[m] : (s[m - 1] + s[m]) / 2.0;
+    }
+
+    // One-sided p-value for "x tends to be larger than y" (normal approximation).
+    static double mannWhitneyGreater(long[] x, long[] y) {
+        double u = 0;
+        for (long a : x) {
+            for (long b : y) {
+                if (a > b) u += 1;
+                else if (a == b) u += 0.5;
+            }
+        }
+        double n1 = x.length, n2 = y.length;
+        double mean = n1 * n2 / 2;
+        double sd = Math.sqrt(n1 * n2 * (n1 + n2 + 1) / 12);
+        if (sd == 0) return 1;
+        double z = (u - mean - 0.5) / sd; // continuity correction
+        return 1 - normalCdf(z);
+    }
+
+    // p-value when every x is larger than every y, the best the test can do
+    static double smallestPValue(int n1, int n2) {
+        double sd = Math.sqrt((double) n1 * n2 * (n1 + n2 + 1) / 12);
+        if (sd == 0) return 1;
+        return 1 - normalCdf((n1 * (double) n2 / 2 - 0.5) / sd);
+    }
+
+    private static double normalCdf(double z) {
+        return 0.5 * (1 + erf(z / Math.sqrt(2)));
+    }
+
+    // Abramowitz and Stegun 7.1.26, |error| < 1.5e-7
+    private static double erf(double x) {
+        double t = 1 / (1 + 0.3275911 * Math.abs(x));
+        double y = 1 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t
+                + 0.254829592) * t * Math.exp(-x * x);
+        return x >= 0 ? y : -y;
+    }
+}
@@ -0,0 +1,186 @@
+package sortbenchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+// Append-only, tab-separated file of benchmark results. One line per
+// (run, algorithm) cell with every sample and the environment it ran in.
+public class ResultStore {
+
+    private static final Logger LOG = Logger.getLogger(ResultStore.class.getName());
+
+    public static final String DEFAULT_FILE = "benchmark-results.tsv";
+    private static final String HEADER = "#timestamp\tcommit\tjdk\tcores\tmaxHeapMB\tgc"
+            + "\talgorithm\tsize\tpattern\tthreshold\tsamplesNanos";
+
+    public static final class Environment {
+        public final String commit;
+        public final String jdk;
+        public final int cores;
+        public final long maxHeapMb;
+        public final String gc;
+
+        Environment(String commit, String jdk, int cores, long maxHeapMb, String gc) {
+            this.commit = commit;
+            this.jdk = jdk;
+            this.cores = cores;
+            this.maxHeapMb = maxHeapMb;
+            this.gc = gc;
+        }
+
+        public static Environment current() {
+            String gc = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                    .map(GarbageCollectorMXBean::getName)
+                    .collect(Collectors.joining("+"));
+            return new Environment(gitCommit(),
+                    System.getProperty("java.vendor") + " " + System.getProperty("java.version"),
+                    Runtime.getRuntime().availableProcessors(),
+                    Runtime.getRuntime().maxMemory() / (1024 * 1024),
+                    gc.isEmpty() ? "unknown" : gc);
+        }
+
+        @Override
+        public String toString() {
+            return "commit=" + commit + ", jdk=" + jdk + ", cores=" + cores
+                    + ", maxHeap=" + maxHeapMb + " MB, gc=" + gc;
+        }
+    }
+
+    public static final class Record {
+        public final Instant timestamp;
+        public final Environment env;
+        public final String algorithm;
+        public final int size;
+        public final String pattern;
+        public final int threshold;
+        public final long[] samples;
+
+        public Record(Instant timestamp, Environment env, String algorithm, int size, String pattern,
+                int threshold, long[] samples) {
+            this.timestamp = timestamp;
+            this.env = env;
+            this.algorithm = algorithm;
+            this.size = size;
+            this.pattern = pattern;
+            this.threshold = threshold;
+            this.samples = samples;
+        }
+
+        // Results are only comparable on the same cell, core count, JDK and GC;
+        // otherwise an environment change would read as a code regression.
+        public boolean sameCell(Record other) {
+            return algorithm.equals(other.algorithm) && size == other.size
+                    && pattern.equals(other.pattern) && threshold == other.threshold
+                    && env.cores == other.env.cores && clean(env.jdk).equals(clean(other.env.jdk))
+                    && clean(env.gc).equals(clean(other.env.gc));
+        }
+
+        String toLine() {
+            return String.join("\t", timestamp.toString(), env.commit, clean(env.jdk),
+                    String.valueOf(env.cores), String.valueOf(env.maxHeapMb), clean(env.gc),
+                    clean(algorithm), String.valueOf(size), clean(pattern), String.valueOf(threshold),
+                    Arrays.stream(samples).mapToObj(Long::toString).collect(Collectors.joining(",")));
+        }
+
+        static Record parse(String line) {
+            String[] f = line.split("\t", -1);
+            if (f.length != 11) throw new IllegalArgumentException("Malformed result line: " + line);
+            Environment env = new Environment(f[1], f[2], Integer.parseInt(f[3]), Long.parseLong(f[4]), f[5]);
+            long[] samples = f[10].isEmpty() ? new long[0]
+                    : Arrays.stream(f[10].split(",")).mapToLong(Long::parseLong).toArray();
+            return new Record(Instant.parse(f[0]), env, f[6], Integer.parseInt(f[7]), f[8],
+                    Integer.parseInt(f[9]), samples);
+        }
+
+        private static String clean(String s) {
+            return s.replace('\t', ' ').replace('\n', ' ');
+        }
+    }
+
+    private final Path file;
+
+    public ResultStore(Path file) {
+        this.file = file;
+    }
+
+    public ResultStore() {
+        this(Paths.get(System.getProperty("sortbenchmark.results", DEFAULT_FILE)));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // Malformed lines (e.g. a partly written append) are skipped with a warning
+    // so one bad line does not make the whole history unreadable.
+    public synchronized List<Record> load() throws IOException {
+        List<Record> records = new ArrayList<>();
+        if (!Files.exists(file)) return records;
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) continue;
+            try {
+                records.add(Record.parse(line));
+            } catch (RuntimeException e) {
+                LOG.warning("Skipping line " + (i + 1) + " of " + file + ": " + e.getMessage());
+            }
+        }
+        return records;
+    }
+
+    public synchronized void append(List<Record> records) throws IOException {
+        boolean fresh = !Files.exists(file);
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (fresh) w.write(HEADER + "\n");
+            for (Record r : records) w.write(r.toLine() + "\n");
+        }
+    }
+
+    public static List<Record> records(Environment env, int size, String pattern, int threshold,
+            Map<String, long[]> samples) {
+        Instant now = Instant.now();
+        List<Record> records = new ArrayList<>();
+        for (Map.Entry<String, long[]> e : samples.entrySet()) {
+            records.add(new Record(now, env, e.getKey(), size, pattern, threshold, e.getValue()));
+        }
+        return records;
+    }
+
+    private static String gitCommit() {
+        String fromEnv = System.getenv("GIT_COMMIT");
+        if (fromEnv != null && !fromEnv.isBlank()) return fromEnv.trim();
+        try {
+            Process p = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true).start();
+            String out;
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                out = r.readLine();
+            }
+            if (p.waitFor(2, TimeUnit.SECONDS) && p.exitValue() == 0 && out != null) return out.trim();
+        } catch (IOException e) {
+            // no git on this machine
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+}
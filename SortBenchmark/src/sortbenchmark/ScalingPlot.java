@@ -0,0 +1,82 @@
+package sortbenchmark;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Speedup vs. parallelism for a scaling study: the dashed diagonal is ideal
+// linear speedup, one line per mode.
+public class ScalingPlot extends JPanel {
+
+    private static final int MARGIN = 50;
+    private final List<ScalingStudy.Level> levels;
+
+    public ScalingPlot(List<ScalingStudy.Level> levels) {
+        this.levels = new ArrayList<>(levels);
+        setPreferredSize(new Dimension(640, 420));
+        setBackground(new Color(17, 8, 30));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (levels.isEmpty()) return;
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int maxP = 1;
+        double maxS = 1;
+        for (ScalingStudy.Level l : levels) {
+            maxP = Math.max(maxP, l.parallelism);
+            maxS = Math.max(maxS, l.speedup);
+        }
+        maxS = Math.max(maxS, maxP);
+        int w = getWidth() - 2 * MARGIN;
+        int h = getHeight() - 2 * MARGIN;
+
+        g2.setColor(new Color(165, 103, 185));
+        g2.drawLine(MARGIN, MARGIN + h, MARGIN + w, MARGIN + h);
+        g2.drawLine(MARGIN, MARGIN, MARGIN, MARGIN + h);
+        for (int p = 1; p <= maxP; p++) {
+            g2.drawString(String.valueOf(p), x(p, maxP, w) - 3, MARGIN + h + 15);
+        }
+        g2.drawString(String.format("%.1fx", maxS), 5, MARGIN + 5);
+        g2.drawString("parallelism", MARGIN + w - 60, MARGIN + h + 35);
+        g2.drawString("speedup", 5, MARGIN - 15);
+
+        Stroke solid = g2.getStroke();
+        g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, new float[] { 4, 4 }, 0));
+        g2.setColor(Color.GRAY);
+        g2.drawLine(x(1, maxP, w), y(1, maxS, h), x(maxP, maxP, w), y(maxP, maxS, h));
+        g2.setStroke(new BasicStroke(2));
+
+        Color[] colors = { new Color(255, 204, 255), new Color(120, 200, 255) };
+        int legend = 0;
+        for (ScalingStudy.Mode mode : ScalingStudy.Mode.values()) {
+            Color c = colors[mode.ordinal() % colors.length];
+            g2.setColor(c);
+            int px = -1, py = -1;
+            boolean any = false;
+            for (ScalingStudy.Level l : levels) {
+                if (l.mode != mode) continue;
+                int cx = x(l.parallelism, maxP, w), cy = y(l.speedup, maxS, h);
+                g2.fillOval(cx - 3, cy - 3, 6, 6);
+                if (px >= 0) g2.drawLine(px, py, cx, cy);
+                px = cx;
+                py = cy;
+                any = true;
+            }
+            if (any) g2.drawString(mode.toString(), MARGIN + w - 60, MARGIN + 15 * ++legend);
+        }
+        g2.setStroke(solid);
+    }
+
+    private static int x(int p, int maxP, int w) {
+        return MARGIN + (maxP == 1 ? w / 2 : (int) ((p - 1) / (double) (maxP - 1) * w));
+    }
+
+    private static int y(double s, double maxS, int h) {
+        return MARGIN + h - (int) (s / maxS * h);
+    }
+}
@@ -0,0 +1,177 @@
+package sortbenchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Sweeps ForkJoinPool parallelism from 1 to N for ParallelMergeSort.
+// Strong scaling keeps the total size fixed; weak scaling keeps the size per
+// worker fixed. Speedup is relative to the same engine on one worker, and weak
+// scaling is normalised by n*log2(n) because merge sort work grows faster than
+// n. The Karp-Flatt metric e = (1/S - 1/p) / (1 - 1/p) estimates the serial
+// fraction; if it grows with p, the loss is overhead rather than serial code.
+public class ScalingStudy {
+
+    public enum Mode { STRONG, WEAK }
+
+    public static final class Level {
+        public final Mode mode;
+        public final int parallelism;
+        public final int size;
+        public final long medianNanos;
+        public final double speedup;
+        public final double efficiency;
+        public final double serialFraction;
+        public final long stealsPerSort;
+
+        Level(Mode mode, int parallelism, int size, long medianNanos, double speedup,
+                double efficiency, double serialFraction, long stealsPerSort) {
+            this.mode = mode;
+            this.parallelism = parallelism;
+            this.size = size;
+            this.medianNanos = medianNanos;
+            this.speedup = speedup;
+            this.efficiency = efficiency;
+            this.serialFraction = serialFraction;
+            this.stealsPerSort = stealsPerSort;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-6s p=%-3d n=%-10d %10.2f ms  speedup=%5.2fx  efficiency=%5.1f%%  serial=%s  steals=%d",
+                    mode, parallelism, size, medianNanos / 1e6, speedup, efficiency * 100,
+                    Double.isNaN(serialFraction) ? "  -  " : String.format("%.3f", serialFraction),
+                    stealsPerSort);
+        }
+    }
+
+    private final int threshold;
+    private final int runs;
+    private final String pattern;
+    private final long seed;
+
+    public ScalingStudy(int threshold, int runs, String pattern, long seed) {
+        this.threshold = threshold;
+        this.runs = Math.max(1, runs);
+        this.pattern = pattern;
+        this.seed = seed;
+    }
+
+    public List<Level> strong(int size, int maxParallelism) {
+        int[] input = ArrayGenerator.generate(pattern, size, seed);
+        List<Level> levels = new ArrayList<>();
+        long t1 = 0;
+        for (int p = 1; p <= maxParallelism; p++) {
+            long[] m = measure(input, p);
+            if (p == 1) t1 = m[0];
+            double speedup = t1 / (double) m[0];
+            levels.add(new Level(Mode.STRONG, p, size, m[0], speedup, speedup / p,
+                    karpFlatt(speedup, p), m[1]));
+        }
+        return levels;
+    }
+
+    public List<Level> weak(int sizePerWorker, int maxParallelism) {
+        List<Level> levels = new ArrayList<>();
+        long t1 = 0;
+        for (int p = 1; p <= maxParallelism; p++) {
+            int size = Math.multiplyExact(sizePerWorker, p);
+            long[] m = measure(ArrayGenerator.generate(pattern, size, seed), p);
+            if (p == 1) t1 = m[0];
+            // scaled speedup: work relative to the one-worker run, per unit of time
+            double work = size * log2(size) / (sizePerWorker * log2(sizePerWorker));
+            double speedup = work * t1 / (double) m[0];
+            levels.add(new Level(Mode.WEAK, p, size, m[0], speedup, speedup / p,
+                    karpFlatt(speedup, p), m[1]));
+        }
+        return levels;
+    }
+
+    // Returns { median nanos, steals per sort } on a dedicated pool of p workers.
+    private long[] measure(int[] input, int p) {
+        ForkJoinPool pool = new ForkJoinPool(p);
+        try {
+            ParallelMergeSort sorter = new ParallelMergeSort(threshold, pool);
+            sorter.sort(ArrayGenerator.copy(input)); // warmup
+            long[] times = new long[runs];
+            long stealsBefore = pool.getStealCount();
+            for (int r = 0; r < runs; r++) {
+                int[] a = ArrayGenerator.copy(input);
+                long t0 = System.nanoTime();
+                sorter.sort(a);
+                times[r] = System.nanoTime() - t0;
+            }
+            long steals = (pool.getStealCount() - stealsBefore) / runs;
+            Arrays.sort(times);
+            return new long[] { times[runs / 2], steals };
+        } finally {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static double karpFlatt(double speedup, int p) {
+        if (p <= 1) return Double.NaN;
+        return (1 / speedup - 1.0 / p) / (1 - 1.0 / p);
+    }
+
+    public static String toCsv(List<Level> levels) {
+        StringBuilder sb = new StringBuilder("mode,parallelism,size,medianNanos,speedup,efficiency,serialFraction,stealsPerSort\n");
+        for (Level l : levels) {
+            sb.append(l.mode).append(',').append(l.parallelism).append(',').append(l.size).append(',')
+                    .append(l.medianNanos).append(',').append(String.format("%.4f", l.speedup)).append(',')
+                    .append(String.format("%.4f", l.efficiency)).append(',')
+                    .append(Double.isNaN(l.serialFraction) ? "" : String.format("%.4f", l.serialFraction)).append(',')
+                    .append(l.stealsPerSort).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static void writeCsv(Path file, List<Level> levels) throws IOException {
+        Files.write(file, toCsv(levels).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static double log2(int n) {
+        return Math.log(Math.max(2, n)) / Math.log(2);
+    }
+
+    // size threshold runs pattern [maxParallelism] [--csv file]
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String pattern = args.length > 3 ? args[3] : "Random";
+        int maxParallelism = args.length > 4 && !args[4].startsWith("--")
+                ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        Path csv = null;
+        for (int i = 0; i < args.length - 1; i++) if (args[i].equals("--csv")) csv = Paths.get(args[i + 1]);
+
+        System.out.println("----------------------------------------");
+        System.out.println("Scaling Study (ParallelMergeSort)");
+        System.out.println("----------------------------------------");
+        System.out.println("Size: " + size + ", per worker (weak): " + size / maxParallelism
+                + ", threshold: " + threshold + ", pattern: " + pattern + ", runs: " + runs);
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors()
+                + ", sweeping parallelism 1.." + maxParallelism + "\n");
+
+        ScalingStudy study = new ScalingStudy(threshold, runs, pattern, 42);
+        List<Level> levels = new ArrayList<>(study.strong(size, maxParallelism));
+        levels.addAll(study.weak(Math.max(1, size / maxParallelism), maxParallelism));
+        for (Level l : levels) System.out.println(l);
+        if (csv != null) {
+            writeCsv(csv, levels);
+            System.out.println("\nWrote " + csv);
+        }
+    }
+}
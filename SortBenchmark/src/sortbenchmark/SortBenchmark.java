@@ -1,6 +1,11 @@
 package sortbenchmark;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class SortBenchmark {
@@ -11,6 +16,10 @@ public class SortBenchmark {
     private String pattern;
     private int[] base;
     private ParallelMergeSortVisualizer visualizer;
+    private boolean strictVerification;
+    private final Map<String, long[]> samples = new LinkedHashMap<>();
+    private boolean correct;
+    private boolean regressed;
 
     // Constructor for GUI
     public SortBenchmark(int size, int threshold, int runs, String pattern,
@@ -23,6 +32,12 @@ public class SortBenchmark {
         this.visualizer = visualizer;
     }
 
+    // Strict mode compares every result against a sorted reference copy instead
+    // of the single-pass sortedness + fingerprint check.
+    public void setStrictVerification(boolean strictVerification) {
+        this.strictVerification = strictVerification;
+    }
+
     // Run benchmark and return results as String (for GUI)
     public String run() {
         StringBuilder sb = new StringBuilder();
@@ -37,32 +52,41 @@ public class SortBenchmark {
 
         long seqTotal = 0, parTotal = 0, arrTotal = 0, arrParTotal = 0;
         boolean allCorrect = true;
+        long[] seqSamples = new long[runs], parSamples = new long[runs];
+        long[] arrSamples = new long[runs], arrParSamples = new long[runs];
+        samples.clear();
+        regressed = false;
+
+        // The visualizer sorts base in place on the first run, so keep a pristine copy.
+        int[] input = visualizer != null ? ArrayGenerator.copy(base) : base;
+        SortVerifier verifier = new SortVerifier();
+        SortVerifier.Fingerprint expected = strictVerification ? null : verifier.fingerprint(input);
+        int[] reference = null;
+        if (strictVerification) {
+            reference = ArrayGenerator.copy(input);
+            Arrays.parallelSort(reference);
+        }
 
         for (int run = 1; run <= runs; run++) {
-            int[] baseRun = ArrayGenerator.copy(base);
-
-            // Reference using Arrays.sort
-            int[] reference = ArrayGenerator.copy(baseRun);
-            long tRefS = System.nanoTime();
-            Arrays.sort(reference);
-            long tRef = System.nanoTime() - tRefS;
-
             // Sequential
-            int[] aSeq = ArrayGenerator.copy(baseRun);
+            int[] aSeq = ArrayGenerator.copy(input);
             SortAlgorithm seq = new SequentialMergeSort();
             long tSeqS = System.nanoTime();
             seq.sort(aSeq);
             long tSeq = System.nanoTime() - tSeqS;
-            if (!Arrays.equals(aSeq, reference)) {
+            SortVerifier.Result rSeq = strictVerification
+                    ? verifier.verifyStrict(aSeq, reference) : verifier.verify(aSeq, expected);
+            if (!rSeq.ok) {
                 allCorrect = false;
+                sb.append("Run ").append(run).append(": SequentialMergeSort failed: ").append(rSeq).append("\n");
             }
-         
+
             // Parallel
             int[] aPar;
             if (run == 1 && visualizer != null) {
                 aPar = base;
             } else {
-                aPar = ArrayGenerator.copy(baseRun);
+                aPar = ArrayGenerator.copy(input);
             }
 
             SortAlgorithm par = (visualizer != null)
@@ -72,18 +96,21 @@ public class SortBenchmark {
             long tParS = System.nanoTime();
             par.sort(aPar);
             long tPar = System.nanoTime() - tParS;
-            if (!Arrays.equals(aPar, reference)) {
+            SortVerifier.Result rPar = strictVerification
+                    ? verifier.verifyStrict(aPar, reference) : verifier.verify(aPar, expected);
+            if (!rPar.ok) {
                 allCorrect = false;
+                sb.append("Run ").append(run).append(": ParallelMergeSort failed: ").append(rPar).append("\n");
             }
 
             // Arrays.sort
-            int[] aArr = ArrayGenerator.copy(baseRun);
+            int[] aArr = ArrayGenerator.copy(input);
             long tArrS = System.nanoTime();
             Arrays.sort(aArr);
             long tArr = System.nanoTime() - tArrS;
 
             // Arrays.parallelSort
-            int[] aArrPar = ArrayGenerator.copy(baseRun);
+            int[] aArrPar = ArrayGenerator.copy(input);
             long tArrParS = System.nanoTime();
             Arrays.parallelSort(aArrPar);
             long tArrPar = System.nanoTime() - tArrParS;
@@ -92,15 +119,24 @@ public class SortBenchmark {
             parTotal += tPar;
             arrTotal += tArr;
             arrParTotal += tArrPar;
+            seqSamples[run - 1] = tSeq;
+            parSamples[run - 1] = tPar;
+            arrSamples[run - 1] = tArr;
+            arrParSamples[run - 1] = tArrPar;
 
             sb.append(String.format("Run %d: seq=%s | par=%s | arr.sort=%s | arr.pSort=%s%n",
                     run, formatNano(tSeq), formatNano(tPar), formatNano(tArr), formatNano(tArrPar)));
         }
 
+        correct = allCorrect;
         if (!allCorrect) {
             sb.append("ERROR: One or more algorithms produced incorrect results.\n");
             return sb.toString();
         }
+        samples.put("SequentialMergeSort", seqSamples);
+        samples.put("ParallelMergeSort", parSamples);
+        samples.put("Arrays.sort", arrSamples);
+        samples.put("Arrays.parallelSort", arrParSamples);
 
         double seqAvg = seqTotal / (double) runs;
         double parAvg = parTotal / (double) runs;
@@ -119,6 +155,40 @@ public class SortBenchmark {
         return sb.toString();
     }
 
+    // Per-run timings of the last successful run(), keyed by algorithm.
+    public Map<String, long[]> getSamples() {
+        return samples;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    public boolean isRegressed() {
+        return regressed;
+    }
+
+    // Compares the last run against the stored baseline for the same cell, then
+    // appends it to the store. Returns a printable report.
+    // Visualized runs are not stored: the listener slows ParallelMergeSort and
+    // the array is cut down to what fits on screen.
+    public String checkAndStore(ResultStore store, RegressionDetector detector) throws IOException {
+        if (samples.isEmpty() || visualizer != null) return "";
+        ResultStore.Environment env = ResultStore.Environment.current();
+        List<ResultStore.Record> current = ResultStore.records(env, size, pattern, threshold, samples);
+        List<RegressionDetector.Finding> findings = detector.check(current, store.load());
+        store.append(current);
+        regressed = RegressionDetector.anyRegressed(findings);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("BASELINE (").append(store.getFile()).append("):\n");
+        sb.append(env).append("\n");
+        for (RegressionDetector.Finding f : findings) sb.append(f).append("\n");
+        if (regressed) sb.append("PERFORMANCE REGRESSION detected.\n");
+        sb.append("--------------------------------------\n");
+        return sb.toString();
+    }
+
     private String formatNano(long nanos) {
         if (nanos < 1_000_000) {
             return nanos + " ns";
@@ -128,8 +198,40 @@ public class SortBenchmark {
         return ms + " ms (" + String.format("%.3f", sec) + " s)";
     }
 
-   
-    public static void main(String[] args) {
+    // Headless entry point for CI:
+    //   size threshold runs pattern [--store file] [--max-regression 0.10] [--seed n] [--strict]
+    // Exits with 1 on incorrect results and 2 on a performance regression.
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: SortBenchmark size threshold runs pattern"
+                    + " [--store file] [--max-regression fraction] [--seed n] [--strict]");
+            System.err.println("Patterns: " + String.join(", ", ArrayGenerator.patternNames()));
+            System.exit(64);
+        }
+        int size = Integer.parseInt(args[0]);
+        int threshold = Integer.parseInt(args[1]);
+        int runs = Integer.parseInt(args[2]);
+        String pattern = args[3];
+        ResultStore store = new ResultStore();
+        double maxRegression = 0.10;
+        long seed = 42;
+        boolean strict = false;
+        for (int i = 4; i < args.length; i++) {
+            switch (args[i]) {
+                case "--store": store = new ResultStore(Paths.get(args[++i])); break;
+                case "--max-regression": maxRegression = Double.parseDouble(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--strict": strict = true; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
 
+        int[] base = ArrayGenerator.generate(pattern, size, seed);
+        SortBenchmark benchmark = new SortBenchmark(size, threshold, runs, pattern, base, null);
+        benchmark.setStrictVerification(strict);
+        System.out.print(benchmark.run());
+        if (!benchmark.isCorrect()) System.exit(1);
+        System.out.print(benchmark.checkAndStore(store, new RegressionDetector(maxRegression, 0.05, 5)));
+        if (benchmark.isRegressed()) System.exit(2);
     }
 }
@@ -0,0 +1,200 @@
+package sortbenchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Checks a sort result without sorting a reference copy. The input is reduced
+// once to an order-independent fingerprint (count plus two sums of hashed
+// values), and the output is checked for sortedness and the same fingerprint in
+// a single parallel pass. Strict mode compares element by element against a
+// reference array instead.
+public class SortVerifier {
+
+    public static final class Fingerprint {
+        final long count;
+        final long sum;
+        final long mixedSum;
+
+        Fingerprint(long count, long sum, long mixedSum) {
+            this.count = count;
+            this.sum = sum;
+            this.mixedSum = mixedSum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Fingerprint)) return false;
+            Fingerprint f = (Fingerprint) o;
+            return count == f.count && sum == f.sum && mixedSum == f.mixedSum;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(sum ^ mixedSum ^ count);
+        }
+    }
+
+    public static final class Result {
+        public final boolean ok;
+        public final int firstBadIndex;
+        public final String message;
+
+        Result(boolean ok, int firstBadIndex, String message) {
+            this.ok = ok;
+            this.firstBadIndex = firstBadIndex;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return message;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public SortVerifier(int threshold, int parallelism) {
+        this.threshold = Math.max(1, threshold);
+        if (parallelism > 0) this.pool = new ForkJoinPool(parallelism);
+        else this.pool = ForkJoinPool.commonPool();
+    }
+
+    public SortVerifier() {
+        this(1 << 16, 0);
+    }
+
+    public Fingerprint fingerprint(int[] a) {
+        if (a.length == 0) return new Fingerprint(0, 0, 0);
+        long[] sums = pool.invoke(new CheckTask(a, 0, a.length, threshold, false, null));
+        return new Fingerprint(a.length, sums[0], sums[1]);
+    }
+
+    public Result verify(int[] sorted, Fingerprint expected) {
+        if (sorted.length == 0) {
+            return expected.count == 0 ? ok() : new Result(false, -1, "Output is empty, expected " + expected.count + " elements");
+        }
+        AtomicInteger firstBad = new AtomicInteger(Integer.MAX_VALUE);
+        long[] sums = pool.invoke(new CheckTask(sorted, 0, sorted.length, threshold, true, firstBad));
+        int bad = firstBad.get();
+        if (bad != Integer.MAX_VALUE) {
+            return new Result(false, bad, String.format("Not sorted at index %d: a[%d]=%d > a[%d]=%d",
+                    bad, bad, sorted[bad], bad + 1, sorted[bad + 1]));
+        }
+        if (!new Fingerprint(sorted.length, sums[0], sums[1]).equals(expected)) {
+            return new Result(false, -1, "Output is sorted but is not a permutation of the input"
+                    + " (" + sorted.length + " elements, expected " + expected.count + ")");
+        }
+        return ok();
+    }
+
+    public Result verifyStrict(int[] sorted, int[] reference) {
+        if (sorted.length != reference.length) {
+            return new Result(false, -1, "Length " + sorted.length + ", expected " + reference.length);
+        }
+        AtomicInteger firstBad = new AtomicInteger(Integer.MAX_VALUE);
+        if (sorted.length > 0) pool.invoke(new CompareTask(sorted, reference, 0, sorted.length, threshold, firstBad));
+        int bad = firstBad.get();
+        if (bad == Integer.MAX_VALUE) return ok();
+        return new Result(false, bad, String.format("Mismatch at index %d: got %d, expected %d",
+                bad, sorted[bad], reference[bad]));
+    }
+
+    private static Result ok() {
+        return new Result(true, -1, "OK");
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void lowerFirstBad(AtomicInteger firstBad, int index) {
+        int current;
+        while (index < (current = firstBad.get()) && !firstBad.compareAndSet(current, index)) {
+        }
+    }
+
+    private static class CheckTask extends RecursiveTask<long[]> {
+        private final int[] a;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final boolean checkOrder;
+        private final AtomicInteger firstBad;
+
+        CheckTask(int[] a, int from, int to, int threshold, boolean checkOrder, AtomicInteger firstBad) {
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.checkOrder = checkOrder;
+            this.firstBad = firstBad;
+        }
+
+        @Override
+        protected long[] compute() {
+            // fail fast: a violation before this chunk already decides the result
+            if (checkOrder && firstBad.get() < from) return new long[2];
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                CheckTask right = new CheckTask(a, mid, to, threshold, checkOrder, firstBad);
+                right.fork();
+                long[] l = new CheckTask(a, from, mid, threshold, checkOrder, firstBad).compute();
+                long[] r = right.join();
+                return new long[] { l[0] + r[0], l[1] + r[1] };
+            }
+            long sum = 0, mixedSum = 0;
+            for (int i = from; i < to; i++) {
+                long h = mix(a[i]);
+                sum += h;
+                mixedSum += mix(h ^ 0x9E3779B97F4A7C15L);
+            }
+            if (checkOrder) {
+                int end = Math.min(to, a.length - 1);
+                for (int i = from; i < end; i++) {
+                    if (a[i] > a[i + 1]) {
+                        lowerFirstBad(firstBad, i);
+                        break;
+                    }
+                }
+            }
+            return new long[] { sum, mixedSum };
+        }
+    }
+
+    private static class CompareTask extends RecursiveAction {
+        private final int[] a;
+        private final int[] b;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final AtomicInteger firstBad;
+
+        CompareTask(int[] a, int[] b, int from, int to, int threshold, AtomicInteger firstBad) {
+            this.a = a;
+            this.b = b;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.firstBad = firstBad;
+        }
+
+        @Override
+        protected void compute() {
+            if (firstBad.get() < from) return;
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CompareTask(a, b, from, mid, threshold, firstBad),
+                          new CompareTask(a, b, mid, to, threshold, firstBad));
+                return;
+            }
+            int mismatch = Arrays.mismatch(a, from, to, b, from, to);
+            if (mismatch >= 0) lowerFirstBad(firstBad, from + mismatch);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package sortbenchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+// Sorted ints or longs on disk, in fixed-count blocks plus a sparse index of
+// (first value, byte offset) per block. Blocks are raw little-endian values, or
+// the first value followed by varint deltas when compressed.
+//
+// Layout: 32-byte header | blocks | index (16 bytes per block)
+// Header: magic, version, value bytes (4 or 8), compressed flag, reserved,
+//         block size, block count, value count, index offset
+public final class SortedBlockFile {
+
+    private static final int MAGIC = 0x4B4C4253; // "SBLK"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int INDEX_ENTRY_BYTES = 16;
+    private static final int ENCODE_GROUP = 64;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private SortedBlockFile() {
+    }
+
+    // Sort-to-file stage: sorts data in place with sorter, then writes it.
+    public static void sortAndWrite(int[] data, SortAlgorithm sorter, Path file, int blockSize,
+            boolean compressed) throws IOException {
+        sorter.sort(data);
+        write(file, data, blockSize, compressed);
+    }
+
+    public static void write(Path file, int[] sorted, int blockSize, boolean compressed) throws IOException {
+        write(file, i -> sorted[i], sorted.length, Integer.BYTES, blockSize, compressed);
+    }
+
+    public static void write(Path file, long[] sorted, int blockSize, boolean compressed) throws IOException {
+        write(file, i -> sorted[i], sorted.length, Long.BYTES, blockSize, compressed);
+    }
+
+    // Encodes groups of blocks in parallel and appends them in order.
+    private static void write(Path file, IntToLongFunction values, int count, int valueBytes, int blockSize,
+            boolean compressed) throws IOException {
+        if (blockSize < 1 || blockSize > (1 << 24)) throw new IllegalArgumentException("blockSize: " + blockSize);
+        int blocks = (count + blockSize - 1) / blockSize;
+        long[] firstValues = new long[blocks];
+        long[] offsets = new long[blocks];
+        try (FileChannel ch = openForWrite(file)) {
+            long pos = HEADER_BYTES;
+            for (int g = 0; g < blocks; g += ENCODE_GROUP) {
+                int group = g;
+                ByteBuffer[] encoded = new ByteBuffer[Math.min(ENCODE_GROUP, blocks - g)];
+                IntStream.range(0, encoded.length).parallel().forEach(b -> {
+                    int from = (group + b) * blockSize;
+                    int to = Math.min(count, from + blockSize);
+                    if (from > 0 && values.applyAsLong(from - 1) > values.applyAsLong(from)) {
+                        throw new IllegalArgumentException("Input is not sorted at index " + (from - 1));
+                    }
+                    encoded[b] = encodeBlock(values, from, to, valueBytes, compressed);
+                });
+                for (int b = 0; b < encoded.length; b++) {
+                    firstValues[group + b] = values.applyAsLong((group + b) * blockSize);
+                    offsets[group + b] = pos;
+                    pos += writeFully(ch, encoded[b], pos);
+                }
+            }
+            finish(ch, pos, firstValues, offsets, blocks, count, valueBytes, blockSize, compressed);
+        }
+    }
+
+    static ByteBuffer encodeBlock(IntToLongFunction values, int from, int to, int valueBytes, boolean compressed) {
+        int n = to - from;
+        ByteBuffer out = ByteBuffer.allocate(compressed ? Long.BYTES + (n - 1) * 10 : n * valueBytes)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        long prev = values.applyAsLong(from);
+        if (compressed) out.putLong(prev);
+        else if (valueBytes == Integer.BYTES) out.putInt((int) prev);
+        else out.putLong(prev);
+        for (int i = from + 1; i < to; i++) {
+            long v = values.applyAsLong(i);
+            if (v < prev) throw new IllegalArgumentException("Input is not sorted at index " + (i - 1));
+            if (compressed) putVarLong(out, v - prev);
+            else if (valueBytes == Integer.BYTES) out.putInt((int) v);
+            else out.putLong(v);
+            prev = v;
+        }
+        out.flip();
+        return out;
+    }
+
+    // Unsigned LEB128; a delta between two longs can use all 64 bits.
+    private static void putVarLong(ByteBuffer out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static int writeFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        int n = buf.remaining();
+        while (buf.hasRemaining()) pos += ch.write(buf, pos);
+        return n;
+    }
+
+    private static void finish(FileChannel ch, long indexOffset, long[] firstValues, long[] offsets, int blocks,
+            long count, int valueBytes, int blockSize, boolean compressed) throws IOException {
+        ByteBuffer index = ByteBuffer.allocate(blocks * INDEX_ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int b = 0; b < blocks; b++) index.putLong(firstValues[b]).putLong(offsets[b]);
+        index.flip();
+        writeFully(ch, index, indexOffset);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).put((byte) VERSION).put((byte) valueBytes).put((byte) (compressed ? 1 : 0)).put((byte) 0)
+                .putInt(blockSize).putInt(blocks).putLong(count).putLong(indexOffset);
+        header.flip();
+        writeFully(ch, header, 0);
+    }
+
+    public static Writer newWriter(Path file, boolean longValues, int blockSize, boolean compressed)
+            throws IOException {
+        return new Writer(file, longValues ? Long.BYTES : Integer.BYTES, blockSize, compressed);
+    }
+
+    // Streaming writer for values that arrive in order, e.g. from a k-way merge.
+    public static final class Writer implements Closeable {
+        private final FileChannel ch;
+        private final int valueBytes;
+        private final int blockSize;
+        private final boolean compressed;
+        private final long[] block;
+        private int fill;
+        private long count;
+        private long pos = HEADER_BYTES;
+        private long last = Long.MIN_VALUE;
+        private long[] firstValues = new long[16];
+        private long[] offsets = new long[16];
+        private int blocks;
+
+        private Writer(Path file, int valueBytes, int blockSize, boolean compressed) throws IOException {
+            if (blockSize < 1 || blockSize > (1 << 24)) throw new IllegalArgumentException("blockSize: " + blockSize);
+            this.ch = openForWrite(file);
+            this.valueBytes = valueBytes;
+            this.blockSize = blockSize;
+            this.compressed = compressed;
+            this.block = new long[blockSize];
+        }
+
+        public void append(long value) throws IOException {
+            if (value < last) throw new IllegalArgumentException("Out of order: " + value + " after " + last);
+            if (valueBytes == Integer.BYTES && value != (int) value) {
+                throw new IllegalArgumentException("Not an int: " + value);
+            }
+            last = value;
+            block[fill++] = value;
+            count++;
+            if (fill == blockSize) flushBlock();
+        }
+
+        public void append(int[] sorted) throws IOException {
+            for (int v : sorted) append(v);
+        }
+
+        public void append(long[] sorted) throws IOException {
+            for (long v : sorted) append(v);
+        }
+
+        private void flushBlock() throws IOException {
+            if (fill == 0) return;
+            if (blocks == firstValues.length) {
+                firstValues = Arrays.copyOf(firstValues, blocks * 2);
+                offsets = Arrays.copyOf(offsets, blocks * 2);
+            }
+            firstValues[blocks] = block[0];
+            offsets[blocks++] = pos;
+            pos += writeFully(ch, encodeBlock(i -> block[i], 0, fill, valueBytes, compressed), pos);
+            fill = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBlock();
+                finish(ch, pos, firstValues, offsets, blocks, count, valueBytes, blockSize, compressed);
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+    public static Reader open(Path file) throws IOException {
+        return new Reader(file);
+    }
+
+    // Memory-maps the data; only the sparse index is read onto the heap.
+    // Queries use absolute reads and are safe from several threads.
+    public static final class Reader implements Closeable {
+        private final FileChannel ch;
+        private final int valueBytes;
+        private final boolean compressed;
+        private final int blockSize;
+        private final int blocks;
+        private final long count;
+        private final long[] firstValues;
+        private final long[] offsets;
+        private final long[] ends;
+        private final MappedByteBuffer[] segments;
+        private final long[] segmentBase;
+        private final int[] blockSegment;
+
+        private Reader(Path file) throws IOException {
+            ch = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                while (header.hasRemaining() && ch.read(header, header.position()) > 0) {
+                }
+                header.flip();
+                if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                    throw new IOException("Not a sorted block file: " + file);
+                }
+                int version = header.get();
+                if (version != VERSION) throw new IOException("Unsupported version " + version + ": " + file);
+                valueBytes = header.get();
+                compressed = header.get() != 0;
+                header.get();
+                blockSize = header.getInt();
+                blocks = header.getInt();
+                count = header.getLong();
+                long indexOffset = header.getLong();
+
+                MappedByteBuffer index = ch.map(FileChannel.MapMode.READ_ONLY, indexOffset,
+                        (long) blocks * INDEX_ENTRY_BYTES);
+                index.order(ByteOrder.LITTLE_ENDIAN);
+                firstValues = new long[blocks];
+                offsets = new long[blocks];
+                ends = new long[blocks];
+                for (int b = 0; b < blocks; b++) {
+                    firstValues[b] = index.getLong();
+                    offsets[b] = index.getLong();
+                }
+                for (int b = 0; b < blocks; b++) ends[b] = b + 1 < blocks ? offsets[b + 1] : indexOffset;
+
+                // map whole blocks into segments of at most 1 GB each
+                List<MappedByteBuffer> maps = new ArrayList<>();
+                List<Long> bases = new ArrayList<>();
+                blockSegment = new int[blocks];
+                int b = 0;
+                while (b < blocks) {
+                    long base = offsets[b];
+                    int e = b;
+                    while (e < blocks && ends[e] - base <= MAX_SEGMENT_BYTES) e++;
+                    if (e == b) throw new IOException("Block " + b + " exceeds " + MAX_SEGMENT_BYTES + " bytes");
+                    MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, base, ends[e - 1] - base);
+                    map.order(ByteOrder.LITTLE_ENDIAN);
+                    for (int k = b; k < e; k++) blockSegment[k] = maps.size();
+                    maps.add(map);
+                    bases.add(base);
+                    b = e;
+                }
+                segments = maps.toArray(new MappedByteBuffer[0]);
+                segmentBase = bases.stream().mapToLong(Long::longValue).toArray();
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public int blockCount() {
+            return blocks;
+        }
+
+        public boolean isCompressed() {
+            return compressed;
+        }
+
+        // Value at position rank in sorted order.
+        public long get(long rank) {
+            if (rank < 0 || rank >= count) throw new IndexOutOfBoundsException("rank " + rank + " of " + count);
+            int b = (int) (rank / blockSize);
+            int k = (int) (rank - (long) b * blockSize);
+            if (!compressed) return rawAt(b, k);
+            Cursor c = new Cursor(b);
+            for (int i = 0; i < k; i++) c.next();
+            return c.value;
+        }
+
+        // Number of values < value, i.e. the insertion point of value.
+        public long rank(long value) {
+            int b = lastBlockBelow(value);
+            if (b < 0) return 0;
+            long base = (long) b * blockSize;
+            int n = blockLength(b);
+            if (!compressed) {
+                int lo = 1, hi = n;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (rawAt(b, mid) < value) lo = mid + 1;
+                    else hi = mid;
+                }
+                return base + lo;
+            }
+            Cursor c = new Cursor(b);
+            for (int k = 1; k < n; k++) {
+                if (c.next() >= value) return base + k;
+            }
+            return base + n;
+        }
+
+        // Number of values in [from, to).
+        public long countRange(long from, long to) {
+            return to <= from ? 0 : rank(to) - rank(from);
+        }
+
+        // Streams the values in [from, to) in order; returns how many there were.
+        public long scan(long from, long to, LongConsumer action) {
+            if (to <= from) return 0;
+            long r = rank(from);
+            if (r >= count) return 0;
+            int b = (int) (r / blockSize);
+            int k = (int) (r - (long) b * blockSize);
+            long seen = 0;
+            for (; b < blocks; b++, k = 0) {
+                if (firstValues[b] >= to && k == 0) break;
+                int n = blockLength(b);
+                if (!compressed) {
+                    for (; k < n; k++) {
+                        long v = rawAt(b, k);
+                        if (v >= to) return seen;
+                        action.accept(v);
+                        seen++;
+                    }
+                    continue;
+                }
+                Cursor c = new Cursor(b);
+                for (int i = 0; i < n; i++) {
+                    long v = i == 0 ? c.value : c.next();
+                    if (i < k) continue;
+                    if (v >= to) return seen;
+                    action.accept(v);
+                    seen++;
+                }
+            }
+            return seen;
+        }
+
+        public long[] range(long from, long to) {
+            long n = countRange(from, to);
+            if (n > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Range too large: " + n + " values");
+            long[] out = new long[(int) n];
+            int[] i = new int[1];
+            scan(from, to, v -> out[i[0]++] = v);
+            return out;
+        }
+
+        // Largest block whose first value is below value, or -1.
+        private int lastBlockBelow(long value) {
+            int lo = 0, hi = blocks;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (firstValues[mid] < value) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo - 1;
+        }
+
+        private int blockLength(int b) {
+            return (int) Math.min(blockSize, count - (long) b * blockSize);
+        }
+
+        private int start(int b) {
+            return (int) (offsets[b] - segmentBase[blockSegment[b]]);
+        }
+
+        private long rawAt(int b, int k) {
+            ByteBuffer map = segments[blockSegment[b]];
+            int p = start(b) + k * valueBytes;
+            return valueBytes == Integer.BYTES ? map.getInt(p) : map.getLong(p);
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+
+        // Walks the varint deltas of one compressed block.
+        private final class Cursor {
+            private final ByteBuffer map;
+            private int p;
+            long value;
+
+            Cursor(int b) {
+                map = segments[blockSegment[b]];
+                p = start(b) + Long.BYTES;
+                value = firstValues[b];
+            }
+
+            long next() {
+                long delta = 0;
+                int shift = 0;
+                byte x;
+                do {
+                    x = map.get(p++);
+                    delta |= (long) (x & 0x7F) << shift;
+                    shift += 7;
+                } while (x < 0);
+                return value += delta;
+            }
+        }
+    }
+}
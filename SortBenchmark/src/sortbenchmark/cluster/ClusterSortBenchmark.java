@@ -0,0 +1,98 @@
+package sortbenchmark.cluster;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import sortbenchmark.ArrayGenerator;
+import sortbenchmark.ParallelMergeSort;
+
+public class ClusterSortBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(2, Math.min(4, cores));
+        String pattern = args.length > 4 ? args[4] : "Random";
+        // split the machine's cores between the workers
+        int workerParallelism = Math.max(1, cores / workers);
+
+        System.out.println("----------------------------------------");
+        System.out.println("Local Sort Cluster Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Values: " + size + " (" + pattern + "), workers: " + workers
+                + " x " + workerParallelism + " threads");
+        System.out.println("CPU cores: " + cores + "\n");
+
+        int[] data = ArrayGenerator.generate(pattern, size, 42);
+        Path dir = Files.createTempDirectory("sort-cluster");
+        Path input = dir.resolve("input.bin");
+        Path singleOut = dir.resolve("single.bin");
+        Path clusterOut = dir.resolve("cluster.bin");
+        ArrayGenerator.writeDump(input, data);
+
+        ParallelMergeSort single = new ParallelMergeSort(threshold);
+        try (SortCluster cluster = new SortCluster(workers, threshold, workerParallelism)) {
+            System.out.println("Worker startup: " + formatNano(cluster.getStartupNanos()));
+
+            long singleFile = 0, clusterFile = 0, singleMem = 0, clusterMem = 0;
+            for (int run = 1; run <= runs; run++) {
+                // file to file: load, sort and store in this JVM vs. stream through the workers
+                long t0 = System.nanoTime();
+                int[] a = ArrayGenerator.loadDump(input);
+                single.sort(a);
+                ArrayGenerator.writeDump(singleOut, a);
+                long tSingleFile = System.nanoTime() - t0;
+
+                t0 = System.nanoTime();
+                cluster.sortFile(input, clusterOut);
+                long tClusterFile = System.nanoTime() - t0;
+                boolean ok = Arrays.equals(a, ArrayGenerator.loadDump(clusterOut));
+
+                int[] b = ArrayGenerator.copy(data);
+                t0 = System.nanoTime();
+                single.sort(b);
+                long tSingleMem = System.nanoTime() - t0;
+
+                int[] c = ArrayGenerator.copy(data);
+                t0 = System.nanoTime();
+                cluster.sort(c);
+                long tClusterMem = System.nanoTime() - t0;
+                ok &= Arrays.equals(b, c);
+
+                if (!ok) {
+                    System.out.println("ERROR: Results differ!\n");
+                    return;
+                }
+                singleFile += tSingleFile;
+                clusterFile += tClusterFile;
+                singleMem += tSingleMem;
+                clusterMem += tClusterMem;
+                System.out.println("Run " + run + ": file single=" + formatNano(tSingleFile)
+                        + " | file cluster=" + formatNano(tClusterFile)
+                        + " | array single=" + formatNano(tSingleMem)
+                        + " | array cluster=" + formatNano(tClusterMem));
+            }
+
+            long[] sizes = cluster.getLastPartitionSizes();
+            long max = Arrays.stream(sizes).max().orElse(0);
+            System.out.println("\nPartition sizes: " + Arrays.toString(sizes));
+            System.out.printf("Skew (largest / mean partition): %.3f%n", max * workers / (double) Math.max(1, size));
+            System.out.printf("Speedup file (single/cluster): %.2fx, array (single/cluster): %.2fx%n",
+                    singleFile / (double) clusterFile, singleMem / (double) clusterMem);
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(singleOut);
+            Files.deleteIfExists(clusterOut);
+            Files.delete(dir);
+        }
+        System.out.println("----------------------------------------");
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        return nanos / 1_000_000 + " ms";
+    }
+}
@@ -0,0 +1,369 @@
+package sortbenchmark.cluster;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import sortbenchmark.SortAlgorithm;
+
+// Coordinator of a local sort cluster. Worker JVMs are spawned on this machine
+// and connect back over loopback sockets. A job samples the input to choose
+// workers - 1 splitters, streams each value to the worker owning its range,
+// and reads the sorted partitions back concurrently, each into its place in
+// the output, which concatenates them into the final sorted result. Neither
+// side holds more than one frame per worker beyond the data it has to sort.
+public class SortCluster implements SortAlgorithm, AutoCloseable {
+
+    private static final int SAMPLES_PER_WORKER = 256;
+    private static final long CONNECT_TIMEOUT_MS = 30_000;
+
+    private final int workers;
+    private final int threshold;
+    private final int workerParallelism;
+    private final Process[] processes;
+    private final SocketChannel[] channels;
+    private final ByteBuffer[] frames;
+    private final ByteBuffer header = SortWorker.newBuffer(Integer.BYTES);
+    private final ExecutorService readers;
+    private final long startupNanos;
+    private long[] lastPartitionSizes = new long[0];
+
+    // workerParallelism is passed to each worker's ParallelMergeSort (0 means
+    // its common pool); jvmOptions such as "-Xmx4g" go to every worker JVM.
+    public SortCluster(int workers, int threshold, int workerParallelism, String... jvmOptions) throws IOException {
+        if (workers < 1) throw new IllegalArgumentException("workers must be >= 1: " + workers);
+        this.workers = workers;
+        this.threshold = Math.max(1, threshold);
+        this.workerParallelism = workerParallelism;
+        this.processes = new Process[workers];
+        this.channels = new SocketChannel[workers];
+        this.frames = new ByteBuffer[workers];
+        for (int w = 0; w < workers; w++) frames[w] = SortWorker.newBuffer((1 + SortWorker.FRAME_VALUES) * Integer.BYTES);
+        this.readers = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "sort-cluster-reader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long t0 = System.nanoTime();
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            for (int w = 0; w < workers; w++) processes[w] = launch(w, port, jvmOptions);
+            acceptWorkers(server);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        this.startupNanos = System.nanoTime() - t0;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    // Time spent spawning the worker JVMs until all of them had connected.
+    public long getStartupNanos() {
+        return startupNanos;
+    }
+
+    // Values sent to each worker by the last job, in output order.
+    public long[] getLastPartitionSizes() {
+        return lastPartitionSizes.clone();
+    }
+
+    @Override
+    public synchronized void sort(int[] array) {
+        if (array == null || array.length <= 1) return;
+        ensureOpen();
+        try {
+            int[] splitters = splitters(array.length, i -> array[(int) i]);
+            int[] next = { 0 };
+            // the sink runs after every value has been sent, so the array can be overwritten
+            run(splitters, () -> {
+                int from = next[0];
+                if (from >= array.length) return null;
+                int n = Math.min(SortWorker.FRAME_VALUES, array.length - from);
+                next[0] += n;
+                return IntBuffer.wrap(array, from, n);
+            }, (offset, bytes) -> bytes.asIntBuffer().get(array, (int) offset, bytes.remaining() / Integer.BYTES));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Sorts a raw little-endian int32 file (the ArrayGenerator dump format)
+    // into output without loading either file into this JVM. Returns the
+    // number of values.
+    public synchronized long sortFile(Path input, Path output) throws IOException {
+        ensureOpen();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            long end = in.size();
+            if (end % Integer.BYTES != 0) {
+                throw new IOException("Input length " + end + " is not a multiple of " + Integer.BYTES + ": " + input);
+            }
+            long count = end / Integer.BYTES;
+            ByteBuffer one = SortWorker.newBuffer(Integer.BYTES);
+            int[] splitters = splitters(count, i -> {
+                one.clear();
+                while (one.hasRemaining()) in.read(one, i * Integer.BYTES + one.position());
+                return one.getInt(0);
+            });
+            ByteBuffer chunk = SortWorker.newBuffer(SortWorker.FRAME_VALUES * Integer.BYTES);
+            long[] pos = { 0 };
+            run(splitters, () -> {
+                if (pos[0] >= end) return null;
+                chunk.clear().limit((int) Math.min(chunk.capacity(), end - pos[0]));
+                while (chunk.hasRemaining()) {
+                    if (in.read(chunk, pos[0] + chunk.position()) < 0) throw new IOException("Input truncated: " + input);
+                }
+                pos[0] += chunk.limit();
+                chunk.flip();
+                return chunk.asIntBuffer();
+            }, (offset, bytes) -> {
+                long at = offset * Integer.BYTES;
+                while (bytes.hasRemaining()) at += out.write(bytes, at);
+            });
+            return count;
+        }
+    }
+
+    private interface Sampler {
+        int valueAt(long index) throws IOException;
+    }
+
+    private interface ChunkSource {
+        IntBuffer next() throws IOException;
+    }
+
+    // Receives sorted values that belong at the given output index. Called
+    // concurrently for different workers, whose ranges never overlap.
+    private interface ByteSink {
+        void accept(long offset, ByteBuffer bytes) throws IOException;
+    }
+
+    // Evenly spaced quantiles of a random sample; worker w receives values in
+    // [splitters[w - 1], splitters[w]).
+    private int[] splitters(long count, Sampler sampler) throws IOException {
+        if (workers == 1 || count == 0) return new int[0];
+        int samples = (int) Math.min(count, (long) workers * SAMPLES_PER_WORKER);
+        SplittableRandom rnd = new SplittableRandom(count);
+        int[] sample = new int[samples];
+        for (int i = 0; i < samples; i++) sample[i] = sampler.valueAt(rnd.nextLong(count));
+        Arrays.sort(sample);
+        int[] splitters = new int[workers - 1];
+        for (int w = 1; w < workers; w++) splitters[w - 1] = sample[(int) ((long) w * samples / workers)];
+        return splitters;
+    }
+
+    private static int partitionOf(int[] splitters, int value) {
+        int lo = 0, hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (splitters[mid] <= value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // A failure part way through a job leaves the workers mid-protocol, so the
+    // cluster is shut down rather than reused.
+    private void run(int[] splitters, ChunkSource source, ByteSink sink) throws IOException {
+        try {
+            collect(distribute(splitters, source), sink);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void ensureOpen() {
+        if (channels[0] == null) throw new IllegalStateException("Cluster is closed");
+    }
+
+    private long[] distribute(int[] splitters, ChunkSource source) throws IOException {
+        long[] sizes = new long[workers];
+        for (ByteBuffer f : frames) f.clear().position(Integer.BYTES);
+        IntBuffer chunk;
+        while ((chunk = source.next()) != null) {
+            while (chunk.hasRemaining()) {
+                int value = chunk.get();
+                int w = partitionOf(splitters, value);
+                ByteBuffer f = frames[w];
+                f.putInt(value);
+                sizes[w]++;
+                if (!f.hasRemaining()) flush(w);
+            }
+        }
+        for (int w = 0; w < workers; w++) {
+            if (frames[w].position() > Integer.BYTES) flush(w);
+            sendInt(w, SortWorker.END_OF_PARTITION);
+        }
+        lastPartitionSizes = sizes;
+        return sizes;
+    }
+
+    private void flush(int w) throws IOException {
+        ByteBuffer f = frames[w];
+        f.putInt(0, f.position() / Integer.BYTES - 1);
+        f.flip();
+        SortWorker.writeFully(channels[w], f);
+        f.clear().position(Integer.BYTES);
+    }
+
+    // Workers sort concurrently and each partition's place in the output is
+    // known from the sizes, so every worker is read on its own thread and a
+    // worker that finishes early does not wait behind the ones before it.
+    private void collect(long[] sizes, ByteSink sink) throws IOException {
+        List<Future<Void>> reads = new ArrayList<>();
+        long offset = 0;
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            long start = offset;
+            reads.add(readers.submit(() -> {
+                readPartition(worker, sizes[worker], start, sink);
+                return null;
+            }));
+            offset += sizes[w];
+        }
+        for (Future<Void> read : reads) {
+            try {
+                read.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading sorted partitions");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) throw (IOException) cause;
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    // frames[w] is free once distribute() is done, so it doubles as w's read buffer
+    private void readPartition(int w, long size, long offset, ByteSink sink) throws IOException {
+        ByteBuffer buf = frames[w];
+        int n = SortWorker.readInt(channels[w], SortWorker.newBuffer(Integer.BYTES));
+        if (n != size) throw new IOException("Worker " + w + " returned " + n + " values, expected " + size);
+        long remaining = (long) n * Integer.BYTES;
+        long at = offset;
+        while (remaining > 0) {
+            buf.clear().limit((int) Math.min(buf.capacity(), remaining));
+            SortWorker.readFully(channels[w], buf);
+            buf.flip();
+            remaining -= buf.remaining();
+            int values = buf.remaining() / Integer.BYTES;
+            sink.accept(at, buf);
+            at += values;
+        }
+    }
+
+    private void sendInt(int w, int value) throws IOException {
+        header.clear();
+        header.putInt(0, value);
+        SortWorker.writeFully(channels[w], header);
+    }
+
+    private Process launch(int index, int port, String[] jvmOptions) throws IOException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        cmd.addAll(Arrays.asList(jvmOptions));
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(SortWorker.class.getName());
+        cmd.add(InetAddress.getLoopbackAddress().getHostAddress());
+        cmd.add(String.valueOf(port));
+        cmd.add(String.valueOf(index));
+        cmd.add(String.valueOf(threshold));
+        cmd.add(String.valueOf(workerParallelism));
+        return new ProcessBuilder(cmd)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private void acceptWorkers(ServerSocketChannel server) throws IOException {
+        long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+        server.configureBlocking(false);
+        try (Selector selector = Selector.open()) {
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            int connected = 0;
+            while (connected < workers) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0) throw new IOException("Timed out: " + connected + " of " + workers + " workers connected");
+                for (int w = 0; w < workers; w++) {
+                    if (channels[w] == null && !processes[w].isAlive()) {
+                        throw new IOException("Worker " + w + " exited with code " + processes[w].exitValue());
+                    }
+                }
+                selector.select(Math.min(wait, 200));
+                selector.selectedKeys().clear();
+                SocketChannel ch;
+                while ((ch = server.accept()) != null) {
+                    ch.configureBlocking(true);
+                    ch.socket().setTcpNoDelay(true);
+                    int index = SortWorker.readInt(ch, header);
+                    if (index < 0 || index >= workers || channels[index] != null) {
+                        ch.close();
+                        throw new IOException("Unexpected worker index " + index);
+                    }
+                    channels[index] = ch;
+                    connected++;
+                }
+            }
+        }
+    }
+
+    // Asks every worker to exit and waits briefly before killing it.
+    @Override
+    public synchronized void close() {
+        readers.shutdownNow();
+        for (int w = 0; w < workers; w++) {
+            if (channels[w] == null) continue;
+            try {
+                if (channels[w].isOpen()) sendInt(w, SortWorker.SHUTDOWN);
+            } catch (IOException ignored) {
+                // worker already gone
+            }
+            try {
+                channels[w].close();
+            } catch (IOException ignored) {
+            }
+            channels[w] = null;
+        }
+        for (int w = 0; w < workers; w++) {
+            Process p = processes[w];
+            if (p == null) continue;
+            try {
+                if (!p.waitFor(5, TimeUnit.SECONDS)) p.destroyForcibly();
+            } catch (InterruptedException e) {
+                p.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+            processes[w] = null;
+        }
+    }
+}
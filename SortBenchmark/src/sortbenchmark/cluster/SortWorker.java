@@ -0,0 +1,98 @@
+package sortbenchmark.cluster;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import sortbenchmark.ParallelMergeSort;
+
+// Worker JVM started by SortCluster. It connects back to the coordinator,
+// announces its index and then serves jobs until told to stop.
+//
+// Wire format, little-endian ints: the coordinator sends frames of
+// [length][length values]; a frame of length 0 ends the partition and
+// length -1 shuts the worker down. The worker answers each partition with
+// [count][count values] in ascending order.
+public class SortWorker {
+
+    static final int END_OF_PARTITION = 0;
+    static final int SHUTDOWN = -1;
+    static final int FRAME_VALUES = 64 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.err.println("Usage: SortWorker host port index threshold parallelism");
+            System.exit(1);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int index = Integer.parseInt(args[2]);
+        int threshold = Integer.parseInt(args[3]);
+        int parallelism = Integer.parseInt(args[4]);
+
+        ParallelMergeSort sorter = new ParallelMergeSort(threshold, parallelism);
+        try (SocketChannel ch = SocketChannel.open(new InetSocketAddress(host, port))) {
+            ch.socket().setTcpNoDelay(true);
+            ByteBuffer header = newBuffer(Integer.BYTES);
+            header.putInt(0, index);
+            writeFully(ch, header);
+
+            ByteBuffer frame = newBuffer(FRAME_VALUES * Integer.BYTES);
+            int[] values = new int[FRAME_VALUES];
+            while (true) {
+                int size = 0;
+                int length;
+                while ((length = readInt(ch, header)) > 0) {
+                    if (length > FRAME_VALUES) throw new IOException("Frame too large: " + length);
+                    if (size + length > values.length) {
+                        values = Arrays.copyOf(values, Math.max(size + length, values.length * 2));
+                    }
+                    frame.clear().limit(length * Integer.BYTES);
+                    readFully(ch, frame);
+                    frame.flip();
+                    frame.asIntBuffer().get(values, size, length);
+                    size += length;
+                }
+                if (length == SHUTDOWN) return;
+
+                int[] partition = size == values.length ? values : Arrays.copyOf(values, size);
+                sorter.sort(partition);
+                header.clear();
+                header.putInt(0, size);
+                writeFully(ch, header);
+                for (int from = 0; from < size; from += FRAME_VALUES) {
+                    int n = Math.min(FRAME_VALUES, size - from);
+                    frame.clear();
+                    frame.asIntBuffer().put(partition, from, n);
+                    frame.limit(n * Integer.BYTES);
+                    writeFully(ch, frame);
+                }
+                // don't hold the last partition while idle
+                values = new int[FRAME_VALUES];
+            }
+        }
+    }
+
+    static ByteBuffer newBuffer(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static int readInt(SocketChannel ch, ByteBuffer header) throws IOException {
+        header.clear();
+        readFully(ch, header);
+        return header.getInt(0);
+    }
+
+    static void readFully(SocketChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) throw new EOFException("Connection closed by peer");
+        }
+    }
+
+    static void writeFully(SocketChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+}
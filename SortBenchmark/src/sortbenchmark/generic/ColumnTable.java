@@ -0,0 +1,218 @@
+package sortbenchmark.generic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Struct-of-arrays record container: a fixed number of rows and one primitive
+// array per field, so sorting and scanning a field never touches the others.
+public class ColumnTable {
+
+    private final int rows;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    public ColumnTable(int rows) {
+        if (rows < 0) throw new IllegalArgumentException("rows < 0: " + rows);
+        this.rows = rows;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public IntColumn addInt(String name) {
+        return add(new IntColumn(name, new int[rows]));
+    }
+
+    public LongColumn addLong(String name) {
+        return add(new LongColumn(name, new long[rows]));
+    }
+
+    public DoubleColumn addDouble(String name) {
+        return add(new DoubleColumn(name, new double[rows]));
+    }
+
+    public StringColumn addString(String name) {
+        return add(new StringColumn(name, new String[rows]));
+    }
+
+    public Column column(String name) {
+        Column c = columns.get(name);
+        if (c == null) throw new IllegalArgumentException("Unknown column: " + name);
+        return c;
+    }
+
+    public List<Column> columns() {
+        return Collections.unmodifiableList(new ArrayList<>(columns.values()));
+    }
+
+    // Reorders every column so that row r becomes old row order[r].
+    public void permute(int[] order) {
+        if (order.length != rows) throw new IllegalArgumentException("order has " + order.length + " rows, table " + rows);
+        columns.values().parallelStream().forEach(c -> c.permute(order));
+    }
+
+    private <C extends Column> C add(C column) {
+        if (columns.putIfAbsent(column.name, column) != null) {
+            throw new IllegalArgumentException("Duplicate column: " + column.name);
+        }
+        return column;
+    }
+
+    public abstract static class Column {
+        public final String name;
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        abstract int compare(int i, int j);
+
+        // Order-preserving signed long per row, or null if the type has none.
+        abstract long[] sortableLongs();
+
+        abstract void permute(int[] order);
+    }
+
+    public static final class IntColumn extends Column {
+        private int[] values;
+
+        IntColumn(String name, int[] values) {
+            super(name);
+            this.values = values;
+        }
+
+        public int get(int row) { return values[row]; }
+        public void set(int row, int value) { values[row] = value; }
+        public int[] values() { return values; }
+
+        @Override
+        int compare(int i, int j) {
+            return Integer.compare(values[i], values[j]);
+        }
+
+        @Override
+        long[] sortableLongs() {
+            long[] out = new long[values.length];
+            IntStream.range(0, values.length).parallel().forEach(r -> out[r] = values[r]);
+            return out;
+        }
+
+        @Override
+        void permute(int[] order) {
+            int[] out = new int[values.length];
+            for (int r = 0; r < out.length; r++) out[r] = values[order[r]];
+            values = out;
+        }
+    }
+
+    public static final class LongColumn extends Column {
+        private long[] values;
+
+        LongColumn(String name, long[] values) {
+            super(name);
+            this.values = values;
+        }
+
+        public long get(int row) { return values[row]; }
+        public void set(int row, long value) { values[row] = value; }
+        public long[] values() { return values; }
+
+        @Override
+        int compare(int i, int j) {
+            return Long.compare(values[i], values[j]);
+        }
+
+        @Override
+        long[] sortableLongs() {
+            return values.clone();
+        }
+
+        @Override
+        void permute(int[] order) {
+            long[] out = new long[values.length];
+            for (int r = 0; r < out.length; r++) out[r] = values[order[r]];
+            values = out;
+        }
+    }
+
+    public static final class DoubleColumn extends Column {
+        private double[] values;
+
+        DoubleColumn(String name, double[] values) {
+            super(name);
+            this.values = values;
+        }
+
+        public double get(int row) { return values[row]; }
+        public void set(int row, double value) { values[row] = value; }
+        public double[] values() { return values; }
+
+        @Override
+        int compare(int i, int j) {
+            return Double.compare(values[i], values[j]);
+        }
+
+        // Same order as Double.compare: -0.0 before 0.0, NaN last.
+        @Override
+        long[] sortableLongs() {
+            long[] out = new long[values.length];
+            IntStream.range(0, values.length).parallel().forEach(r -> {
+                long bits = Double.doubleToLongBits(values[r]);
+                out[r] = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+            });
+            return out;
+        }
+
+        @Override
+        void permute(int[] order) {
+            double[] out = new double[values.length];
+            for (int r = 0; r < out.length; r++) out[r] = values[order[r]];
+            values = out;
+        }
+    }
+
+    public static final class StringColumn extends Column {
+        private String[] values;
+
+        StringColumn(String name, String[] values) {
+            super(name);
+            this.values = values;
+        }
+
+        public String get(int row) { return values[row]; }
+        public void set(int row, String value) { values[row] = value; }
+        public String[] values() { return values; }
+
+        // nulls first
+        @Override
+        int compare(int i, int j) {
+            String a = values[i], b = values[j];
+            if (a == b) return 0;
+            if (a == null) return -1;
+            if (b == null) return 1;
+            return a.compareTo(b);
+        }
+
+        @Override
+        long[] sortableLongs() {
+            return null;
+        }
+
+        @Override
+        void permute(int[] order) {
+            String[] out = new String[values.length];
+            for (int r = 0; r < out.length; r++) out[r] = values[order[r]];
+            values = out;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnTable" + Arrays.toString(columns.keySet().toArray()) + " x " + rows;
+    }
+}
@@ -0,0 +1,186 @@
+package sortbenchmark.generic;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.stream.IntStream;
+
+// Multi-key sort of a ColumnTable. Leading numeric keys are encoded into small
+// unsigned codes (offset from the minimum, or dense rank when the range is much
+// wider than the row count) and packed into one long per row. If every key fits
+// together with the row number, the rows are ordered by a primitive long sort;
+// otherwise the packed word is the first comparison of a stable index merge
+// sort and the remaining keys break ties.
+public class ColumnarSort {
+
+    private static final int MAX_PACKED_BITS = 63;
+    private static final int MAX_HASHED_DISTINCT = 1 << 16;
+
+    private static final class Encoded {
+        final long[] codes;
+        final int width;
+
+        Encoded(long[] codes, int width) {
+            this.codes = codes;
+            this.width = width;
+        }
+    }
+
+    private final ParallelIndexMergeSort indexSorter;
+    private volatile String lastPlan = "";
+
+    public ColumnarSort(int threshold, int parallelism) {
+        this.indexSorter = new ParallelIndexMergeSort(threshold, parallelism);
+    }
+
+    public ColumnarSort(int threshold) {
+        this(threshold, 0);
+    }
+
+    public void sort(ColumnTable table, SortSpec spec) {
+        table.permute(sortedIndex(table, spec));
+    }
+
+    // Row order that sorts the table by spec, stable; the table is not modified.
+    public int[] sortedIndex(ColumnTable table, SortSpec spec) {
+        int n = table.size();
+        List<SortSpec.Key> keys = spec.keys();
+        long[] packed = null;
+        int used = 0;
+        int packedKeys = 0;
+        for (SortSpec.Key key : keys) {
+            long[] sortable = table.column(key.column).sortableLongs();
+            if (sortable == null) break;
+            Encoded e = encode(sortable);
+            if (used + e.width > MAX_PACKED_BITS) break;
+            if (packed == null) {
+                packed = e.codes;
+                if (key.descending) invert(packed, e.width);
+            } else {
+                long[] p = packed;
+                long mask = mask(e.width);
+                int width = e.width;
+                boolean desc = key.descending;
+                IntStream.range(0, n).parallel().forEach(r ->
+                        p[r] = (p[r] << width) | (desc ? mask - e.codes[r] : e.codes[r]));
+            }
+            used += e.width;
+            packedKeys++;
+        }
+
+        int rowBits = bits(Math.max(0, n - 1));
+        if (packedKeys == keys.size() && used + rowBits <= MAX_PACKED_BITS) {
+            // row number in the low bits: values are unique, so the sort is stable
+            long[] p = packed != null ? packed : new long[n];
+            IntStream.range(0, n).parallel().forEach(r -> p[r] = (p[r] << rowBits) | r);
+            Arrays.parallelSort(p);
+            long rowMask = mask(rowBits);
+            int[] order = new int[n];
+            IntStream.range(0, n).parallel().forEach(r -> order[r] = (int) (p[r] & rowMask));
+            lastPlan = "packed " + packedKeys + " key(s) into " + used + " bits + " + rowBits
+                    + " row bits; primitive long sort";
+            return order;
+        }
+
+        List<SortSpec.Key> rest = keys.subList(packedKeys, keys.size());
+        ColumnTable.Column[] restColumns = new ColumnTable.Column[rest.size()];
+        boolean[] restDescending = new boolean[rest.size()];
+        for (int k = 0; k < restColumns.length; k++) {
+            restColumns[k] = table.column(rest.get(k).column);
+            restDescending[k] = rest.get(k).descending;
+        }
+        long[] p = packed;
+        IndexComparator comp = (i, j) -> {
+            if (p != null) {
+                int c = Long.compare(p[i], p[j]);
+                if (c != 0) return c;
+            }
+            for (int k = 0; k < restColumns.length; k++) {
+                int c = restColumns[k].compare(i, j);
+                if (c != 0) return restDescending[k] ? -c : c;
+            }
+            return 0;
+        };
+        int[] order = ParallelIndexMergeSort.identity(n);
+        indexSorter.sort(order, comp);
+        lastPlan = "packed " + packedKeys + " key(s) into " + used + " bits; index merge sort with "
+                + rest.size() + " tie-break key(s)";
+        return order;
+    }
+
+    public String getLastPlan() {
+        return lastPlan;
+    }
+
+    // Codes in [0, 2^width). Offsets from the minimum are cheap but only
+    // compact when the value range is small; otherwise rank the distinct values,
+    // found with a small hash table when there are few and by sorting otherwise.
+    private static Encoded encode(long[] sortable) {
+        int n = sortable.length;
+        if (n == 0) return new Encoded(sortable, 0);
+        LongSummaryStatistics stats = Arrays.stream(sortable).parallel().summaryStatistics();
+        long min = stats.getMin();
+        long range = stats.getMax() - min; // negative if the range overflows
+        int offsetWidth = range < 0 ? 64 : bits(range);
+        if (offsetWidth <= bits(n)) {
+            IntStream.range(0, n).parallel().forEach(r -> sortable[r] -= min);
+            return new Encoded(sortable, offsetWidth);
+        }
+        Encoded hashed = hashRank(sortable);
+        if (hashed != null) return hashed;
+        long[] distinct = sortable.clone();
+        Arrays.parallelSort(distinct);
+        int d = 1;
+        for (int i = 1; i < n; i++) if (distinct[i] != distinct[d - 1]) distinct[d++] = distinct[i];
+        int count = d;
+        IntStream.range(0, n).parallel().forEach(r -> sortable[r] = Arrays.binarySearch(distinct, 0, count, sortable[r]));
+        return new Encoded(sortable, bits(count - 1));
+    }
+
+    private static Encoded hashRank(long[] sortable) {
+        int capacity = Integer.highestOneBit(Math.min(sortable.length, MAX_HASHED_DISTINCT) * 2 - 1) << 1;
+        int mask = capacity - 1;
+        long[] keys = new long[capacity];
+        boolean[] used = new boolean[capacity];
+        int count = 0;
+        for (long v : sortable) {
+            int slot = hash(v) & mask;
+            while (used[slot] && keys[slot] != v) slot = (slot + 1) & mask;
+            if (!used[slot]) {
+                if (++count > MAX_HASHED_DISTINCT) return null;
+                used[slot] = true;
+                keys[slot] = v;
+            }
+        }
+        long[] distinct = new long[count];
+        for (int s = 0, d = 0; s < capacity; s++) if (used[s]) distinct[d++] = keys[s];
+        Arrays.sort(distinct);
+        int[] rank = new int[capacity];
+        for (int s = 0; s < capacity; s++) if (used[s]) rank[s] = Arrays.binarySearch(distinct, keys[s]);
+        IntStream.range(0, sortable.length).parallel().forEach(r -> {
+            long v = sortable[r];
+            int slot = hash(v) & mask;
+            while (keys[slot] != v) slot = (slot + 1) & mask;
+            sortable[r] = rank[slot];
+        });
+        return new Encoded(sortable, bits(count - 1));
+    }
+
+    private static int hash(long v) {
+        v = (v ^ (v >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return (int) (v ^ (v >>> 33));
+    }
+
+    private static void invert(long[] codes, int width) {
+        long mask = mask(width);
+        IntStream.range(0, codes.length).parallel().forEach(r -> codes[r] = mask - codes[r]);
+    }
+
+    private static long mask(int width) {
+        return width == 0 ? 0 : -1L >>> (64 - width);
+    }
+
+    private static int bits(long x) {
+        return 64 - Long.numberOfLeadingZeros(x);
+    }
+}
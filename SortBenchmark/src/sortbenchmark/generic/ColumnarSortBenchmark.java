@@ -0,0 +1,90 @@
+package sortbenchmark.generic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class ColumnarSortBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("----------------------------------------");
+        System.out.println("Columnar Multi-Key Sort Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Rows: " + size);
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        Employee[] employees = IndirectSortBenchmark.randomEmployees(size, 42);
+        Comparator<Employee> ageSalary = Comparator.comparingInt(Employee::getAge)
+                .thenComparing(Comparator.comparingDouble(Employee::getSalary).reversed());
+        Comparator<Employee> ageSalaryName = ageSalary.thenComparing(Employee::getName);
+
+        compare("age asc, salary desc", employees, ageSalary,
+                SortSpec.by("age").thenDescending("salary"), threshold, runs);
+        compare("age asc, salary desc, name asc", employees, ageSalaryName,
+                SortSpec.by("age").thenDescending("salary").then("name"), threshold, runs);
+    }
+
+    private static void compare(String title, Employee[] employees, Comparator<Employee> comp, SortSpec spec,
+            int threshold, int runs) {
+        System.out.println(title);
+        GenericParallelMergeSort<Employee> generic = new GenericParallelMergeSort<>(threshold);
+        ColumnarSort columnar = new ColumnarSort(threshold);
+        long genericTime = 0, columnarTime = 0;
+        for (int run = 1; run <= runs; run++) {
+            Employee[] a = Arrays.copyOf(employees, employees.length);
+            long t0 = System.nanoTime();
+            generic.sort(a, comp);
+            long tGeneric = System.nanoTime() - t0;
+
+            ColumnTable table = toTable(employees);
+            t0 = System.nanoTime();
+            columnar.sort(table, spec);
+            long tColumnar = System.nanoTime() - t0;
+
+            if (!sameRows(a, table)) {
+                System.out.println("ERROR: Columnar result differs from the comparator sort!\n");
+                return;
+            }
+            genericTime += tGeneric;
+            columnarTime += tColumnar;
+            System.out.println("Run " + run + ": generic thenComparing=" + formatNano(tGeneric)
+                    + " | columnar=" + formatNano(tColumnar));
+        }
+        System.out.println("Plan: " + columnar.getLastPlan());
+        System.out.printf("Speedup (generic/columnar): %.2fx%n", genericTime / (double) columnarTime);
+        System.out.println("----------------------------------------");
+    }
+
+    static ColumnTable toTable(Employee[] employees) {
+        ColumnTable table = new ColumnTable(employees.length);
+        ColumnTable.StringColumn name = table.addString("name");
+        ColumnTable.IntColumn age = table.addInt("age");
+        ColumnTable.DoubleColumn salary = table.addDouble("salary");
+        for (int r = 0; r < employees.length; r++) {
+            name.set(r, employees[r].getName());
+            age.set(r, employees[r].getAge());
+            salary.set(r, employees[r].getSalary());
+        }
+        return table;
+    }
+
+    // Both sorts are stable, so the rows must match one for one.
+    private static boolean sameRows(Employee[] sorted, ColumnTable table) {
+        String[] name = ((ColumnTable.StringColumn) table.column("name")).values();
+        int[] age = ((ColumnTable.IntColumn) table.column("age")).values();
+        double[] salary = ((ColumnTable.DoubleColumn) table.column("salary")).values();
+        for (int r = 0; r < sorted.length; r++) {
+            if (!sorted[r].getName().equals(name[r]) || sorted[r].getAge() != age[r]
+                    || sorted[r].getSalary() != salary[r]) return false;
+        }
+        return true;
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        return nanos / 1_000_000 + " ms";
+    }
+}
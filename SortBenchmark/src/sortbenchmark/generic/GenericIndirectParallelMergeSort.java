@@ -0,0 +1,77 @@
+package sortbenchmark.generic;
+
+import java.util.Comparator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+// Sorts T[] by sorting an int index array, then moving every object once with
+// cycle-following. The key variants extract keys into a primitive array first,
+// so compares never dereference the objects.
+public class GenericIndirectParallelMergeSort<T> {
+
+    private final ParallelIndexMergeSort indexSorter;
+    private volatile long lastStores;
+
+    public GenericIndirectParallelMergeSort(int threshold, int parallelism) {
+        this.indexSorter = new ParallelIndexMergeSort(threshold, parallelism);
+    }
+
+    public GenericIndirectParallelMergeSort(int threshold) {
+        this(threshold, 0);
+    }
+
+    public void sort(T[] array, Comparator<T> comp) {
+        if (array == null || array.length <= 1) return;
+        int[] idx = ParallelIndexMergeSort.identity(array.length);
+        indexSorter.sort(idx, (i, j) -> comp.compare(array[i], array[j]));
+        lastStores = applyPermutation(array, idx);
+    }
+
+    public void sortByLongKey(T[] array, ToLongFunction<? super T> key) {
+        if (array == null || array.length <= 1) return;
+        long[] keys = new long[array.length];
+        for (int i = 0; i < array.length; i++) keys[i] = key.applyAsLong(array[i]);
+        int[] idx = ParallelIndexMergeSort.identity(array.length);
+        indexSorter.sort(idx, (i, j) -> Long.compare(keys[i], keys[j]));
+        lastStores = applyPermutation(array, idx);
+    }
+
+    public void sortByDoubleKey(T[] array, ToDoubleFunction<? super T> key) {
+        if (array == null || array.length <= 1) return;
+        double[] keys = new double[array.length];
+        for (int i = 0; i < array.length; i++) keys[i] = key.applyAsDouble(array[i]);
+        int[] idx = ParallelIndexMergeSort.identity(array.length);
+        indexSorter.sort(idx, (i, j) -> Double.compare(keys[i], keys[j]));
+        lastStores = applyPermutation(array, idx);
+    }
+
+    // Reference stores made by the most recent sort; only the final
+    // permutation stores references, the index sort moves ints.
+    public long getLastStores() {
+        return lastStores;
+    }
+
+    // Moves array[idx[k]] to position k in place; idx is reset to the identity.
+    // Returns the number of reference stores made.
+    public static <T> long applyPermutation(T[] array, int[] idx) {
+        long stores = 0;
+        for (int start = 0; start < idx.length; start++) {
+            if (idx[start] == start) continue;
+            T first = array[start];
+            int k = start;
+            while (true) {
+                int next = idx[k];
+                idx[k] = k;
+                if (next == start) {
+                    array[k] = first;
+                    stores++;
+                    break;
+                }
+                array[k] = array[next];
+                stores++;
+                k = next;
+            }
+        }
+        return stores;
+    }
+}
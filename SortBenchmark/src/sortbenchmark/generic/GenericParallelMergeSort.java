@@ -50,20 +50,29 @@ public class GenericParallelMergeSort<T> {
 
         @Override
         protected void compute() {
-            if (left >= right) return;
-            int length = right - left + 1;
+            sortRange(left, right);
+        }
+
+        protected void sortRange(int lo, int hi) {
+            if (lo >= hi) return;
+            int length = hi - lo + 1;
             if (length <= threshold) {
                 // sequential on small segment
-                sequentialMergeSort(a, aux, left, right, comp);
+                sequentialMergeSort(a, aux, lo, hi, comp);
                 return;
             }
-            int mid = left + (right - left) / 2;
-            MergeSortTask<T> leftTask = new MergeSortTask<>(a, aux, left, mid, threshold, comp);
-            MergeSortTask<T> rightTask = new MergeSortTask<>(a, aux, mid + 1, right, threshold, comp);
-            invokeAll(leftTask, rightTask);
+            int mid = lo + (hi - lo) / 2;
+            MergeSortTask<T> rightTask = createSubtask(mid + 1, hi);
+            rightTask.fork();
+            sortRange(lo, mid);
+            rightTask.join();
             // optimization: if halves already ordered, skip merging
             if (comp.compare(a[mid], a[mid + 1]) <= 0) return;
-            merge(a, aux, left, mid, right, comp);
+            merge(a, aux, lo, mid, hi, comp);
+        }
+
+        protected MergeSortTask<T> createSubtask(int left, int right) {
+            return new MergeSortTask<>(a, aux, left, right, threshold, comp);
         }
 
         protected void sequentialMergeSort(T[] a, T[] aux, int left, int right, Comparator<T> comp) {
@@ -0,0 +1,6 @@
+package sortbenchmark.generic;
+
+@FunctionalInterface
+public interface IndexComparator {
+    int compare(int i, int j);
+}
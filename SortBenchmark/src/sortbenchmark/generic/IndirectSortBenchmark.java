@@ -0,0 +1,154 @@
+package sortbenchmark.generic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import sortbenchmark.BenchmarkUtil;
+
+public class IndirectSortBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("----------------------------------------");
+        System.out.println("Indirect (Index) Sort Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Array size: " + size + " employees");
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        Employee[] employees = randomEmployees(size, 42);
+        Comparator<Employee> comp = (e1, e2) -> Double.compare(e1.getSalary(), e2.getSalary());
+
+        Employee[] expected = Arrays.copyOf(employees, size);
+        new GenericSequentialMergeSort<Employee>().sort(expected, comp);
+
+        CountingParallelMergeSort<Employee> direct = new CountingParallelMergeSort<>(threshold);
+        GenericIndirectParallelMergeSort<Employee> indirect = new GenericIndirectParallelMergeSort<>(threshold);
+
+        long directTime = 0, indirectTime = 0, keyTime = 0;
+        long directBytes = 0, indirectBytes = 0, keyBytes = 0;
+        long directStores = 0, indirectStores = 0, keyStores = 0;
+        for (int run = 1; run <= runs; run++) {
+            Employee[] a = Arrays.copyOf(employees, size);
+            long b0 = BenchmarkUtil.allocatedBytes();
+            long t0 = System.nanoTime();
+            direct.stores.reset();
+            direct.sort(a, comp);
+            long tDirect = System.nanoTime() - t0;
+            long bDirect = BenchmarkUtil.allocatedBytes() - b0;
+            directStores = direct.stores.sum();
+            boolean ok = identical(a, expected);
+
+            a = Arrays.copyOf(employees, size);
+            b0 = BenchmarkUtil.allocatedBytes();
+            t0 = System.nanoTime();
+            indirect.sort(a, comp);
+            long tIndirect = System.nanoTime() - t0;
+            long bIndirect = BenchmarkUtil.allocatedBytes() - b0;
+            indirectStores = indirect.getLastStores();
+            ok &= identical(a, expected);
+
+            a = Arrays.copyOf(employees, size);
+            b0 = BenchmarkUtil.allocatedBytes();
+            t0 = System.nanoTime();
+            indirect.sortByDoubleKey(a, Employee::getSalary);
+            long tKey = System.nanoTime() - t0;
+            long bKey = BenchmarkUtil.allocatedBytes() - b0;
+            keyStores = indirect.getLastStores();
+            ok &= identical(a, expected);
+
+            if (!ok) {
+                System.out.println("ERROR: Results differ or order is not stable!\n");
+                return;
+            }
+            directTime += tDirect;
+            indirectTime += tIndirect;
+            keyTime += tKey;
+            directBytes += bDirect;
+            indirectBytes += bIndirect;
+            keyBytes += bKey;
+            System.out.println("Run " + run + ": generic=" + formatNano(tDirect)
+                    + " | indirect=" + formatNano(tIndirect)
+                    + " | indirect(key)=" + formatNano(tKey));
+        }
+
+        System.out.println("\n                      time          allocated     reference stores");
+        System.out.printf("Generic parallel:     %-13s %-13s %d%n", formatNano(directTime / runs),
+                formatBytes(directBytes / runs), directStores);
+        System.out.printf("Indirect comparator:  %-13s %-13s %d%n", formatNano(indirectTime / runs),
+                formatBytes(indirectBytes / runs), indirectStores);
+        System.out.printf("Indirect key:         %-13s %-13s %d%n", formatNano(keyTime / runs),
+                formatBytes(keyBytes / runs), keyStores);
+        System.out.println("----------------------------------------");
+        System.out.printf("Speedup (generic/indirect key): %.2fx%n", directTime / (double) keyTime);
+    }
+
+    static Employee[] randomEmployees(int size, long seed) {
+        Random rnd = new Random(seed);
+        Employee[] employees = new Employee[size];
+        for (int i = 0; i < size; i++) {
+            // few distinct salaries so stability is actually exercised
+            employees[i] = new Employee("E" + i, 20 + rnd.nextInt(45), 3000 + 100 * rnd.nextInt(100));
+        }
+        return employees;
+    }
+
+    private static boolean identical(Object[] a, Object[] b) {
+        for (int i = 0; i < a.length; i++) if (a[i] != b[i]) return false;
+        return true;
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        return nanos / 1_000_000 + " ms";
+    }
+
+    private static String formatBytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    // Counts reference stores (each one pays a GC write barrier) in the generic path.
+    private static class CountingParallelMergeSort<T> extends GenericParallelMergeSort<T> {
+        final LongAdder stores = new LongAdder();
+
+        CountingParallelMergeSort(int threshold) {
+            super(threshold);
+        }
+
+        @Override
+        public void sort(T[] array, Comparator<T> comp) {
+            if (array != null && array.length > 1) stores.add(array.length); // aux copy
+            super.sort(array, comp);
+        }
+
+        @Override
+        protected MergeSortTask<T> createMergeSortTask(T[] array, T[] aux, int left, int right, int threshold,
+                Comparator<T> comp) {
+            return new CountingTask<>(array, aux, left, right, threshold, comp, stores);
+        }
+
+        private static class CountingTask<T> extends MergeSortTask<T> {
+            private final LongAdder stores;
+
+            CountingTask(T[] a, T[] aux, int left, int right, int threshold, Comparator<T> comp,
+                    LongAdder stores) {
+                super(a, aux, left, right, threshold, comp);
+                this.stores = stores;
+            }
+
+            @Override
+            protected MergeSortTask<T> createSubtask(int left, int right) {
+                return new CountingTask<>(a, aux, left, right, threshold, comp, stores);
+            }
+
+            @Override
+            protected void merge(T[] a, T[] aux, int left, int mid, int right, Comparator<T> comp) {
+                stores.add(2L * (right - left + 1)); // copy into aux + write back
+                super.merge(a, aux, left, mid, right, comp);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package sortbenchmark.generic;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Stable parallel merge sort of an int index array. Only ints move between the
+// index array and aux, so no reference stores happen while sorting.
+public class ParallelIndexMergeSort {
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelIndexMergeSort(int threshold, int parallelism) {
+        this.threshold = Math.max(1, threshold);
+        if (parallelism > 0) this.pool = new ForkJoinPool(parallelism);
+        else this.pool = ForkJoinPool.commonPool();
+    }
+
+    public ParallelIndexMergeSort(int threshold) {
+        this(threshold, 0);
+    }
+
+    public static int[] identity(int n) {
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) idx[i] = i;
+        return idx;
+    }
+
+    public void sort(int[] idx, IndexComparator comp) {
+        if (idx == null || idx.length <= 1) return;
+        int[] aux = Arrays.copyOf(idx, idx.length);
+        pool.invoke(new MergeSortTask(idx, aux, 0, idx.length - 1, threshold, comp));
+    }
+
+    // Stable sort of idx[left, right] on the calling thread, using aux over
+    // the same range.
+    static void sequentialSort(int[] idx, int[] aux, int left, int right, IndexComparator comp) {
+        if (left >= right) return;
+        int mid = left + (right - left) / 2;
+        sequentialSort(idx, aux, left, mid, comp);
+        sequentialSort(idx, aux, mid + 1, right, comp);
+        if (comp.compare(idx[mid], idx[mid + 1]) <= 0) return;
+        merge(idx, aux, left, mid, right, comp);
+    }
+
+    static void merge(int[] a, int[] aux, int left, int mid, int right, IndexComparator comp) {
+        System.arraycopy(a, left, aux, left, right - left + 1);
+        int i = left;
+        int j = mid + 1;
+        int k = left;
+        while (i <= mid && j <= right) {
+            if (comp.compare(aux[i], aux[j]) <= 0)
+                a[k++] = aux[i++];
+            else
+                a[k++] = aux[j++];
+        }
+        while (i <= mid) a[k++] = aux[i++];
+        while (j <= right) a[k++] = aux[j++];
+    }
+
+    protected static class MergeSortTask extends RecursiveAction {
+        protected final int[] a;
+        protected final int[] aux;
+        protected final int left;
+        protected final int right;
+        protected final int threshold;
+        protected final IndexComparator comp;
+
+        public MergeSortTask(int[] a, int[] aux, int left, int right, int threshold, IndexComparator comp) {
+            this.a = a;
+            this.aux = aux;
+            this.left = left;
+            this.right = right;
+            this.threshold = threshold;
+            this.comp = comp;
+        }
+
+        @Override
+        protected void compute() {
+            sortRange(left, right);
+        }
+
+        protected void sortRange(int lo, int hi) {
+            if (lo >= hi) return;
+            int length = hi - lo + 1;
+            if (length <= threshold) {
+                sequentialMergeSort(a, aux, lo, hi, comp);
+                return;
+            }
+            int mid = lo + (hi - lo) / 2;
+            MergeSortTask rightTask = createSubtask(mid + 1, hi);
+            rightTask.fork();
+            sortRange(lo, mid);
+            rightTask.join();
+            if (comp.compare(a[mid], a[mid + 1]) <= 0) return;
+            merge(a, aux, lo, mid, hi, comp);
+        }
+
+        protected MergeSortTask createSubtask(int left, int right) {
+            return new MergeSortTask(a, aux, left, right, threshold, comp);
+        }
+
+        protected void sequentialMergeSort(int[] a, int[] aux, int left, int right, IndexComparator comp) {
+            ParallelIndexMergeSort.sequentialSort(a, aux, left, right, comp);
+        }
+
+        protected void merge(int[] a, int[] aux, int left, int mid, int right, IndexComparator comp) {
+            ParallelIndexMergeSort.merge(a, aux, left, mid, right, comp);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package sortbenchmark.generic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+// Stable parallel string sort that rarely calls String.compareTo. Each row
+// caches the next 4 UTF-16 chars of its key (8 bytes) in a long, and
+// (prefix, row) pairs are merge sorted by that word alone. Runs that tie on a
+// prefix are refined MSD-style: the following 4 chars are loaded into the
+// same slots and only that run is sorted again, so shared prefixes such as
+// "https://www." are walked once per run instead of once per comparison.
+// Small runs, and runs up to the threshold that several levels in a row
+// failed to split, are finished with String.compareTo: a level costs a pass
+// over the run however little it splits, while compareTo skips a long shared
+// prefix with vectorized compares.
+public class ParallelStringSort {
+
+    private static final int CHARS_PER_WORD = 4;
+    private static final int INSERTION_SORT_LIMIT = 32;
+    static final int COMPARE_SORT_LIMIT = 16;
+    // One unsplit level is common (e.g. "Abdelrahman" continues "lrah"), so
+    // only this many in a row count as a long shared prefix.
+    static final int MAX_STALLED_LEVELS = 4;
+    // Each refinement level is a nested compute() call, so runs still tied
+    // after this many chars are finished with String.compareTo.
+    static final int MAX_REFINE_DEPTH = 64;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelStringSort(int threshold, int parallelism) {
+        this.threshold = Math.max(INSERTION_SORT_LIMIT, threshold);
+        if (parallelism > 0) this.pool = new ForkJoinPool(parallelism);
+        else this.pool = ForkJoinPool.commonPool();
+    }
+
+    public ParallelStringSort(int threshold) {
+        this(threshold, 0);
+    }
+
+    public void sort(String[] array) {
+        if (array == null || array.length <= 1) return;
+        String[] keys = array.clone();
+        int[] order = sortedIndex(keys);
+        for (int r = 0; r < array.length; r++) array[r] = keys[order[r]];
+    }
+
+    // Extracts every key once, then moves each object once.
+    public <T> void sort(T[] array, Function<? super T, String> key) {
+        if (array == null || array.length <= 1) return;
+        String[] keys = new String[array.length];
+        for (int i = 0; i < array.length; i++) keys[i] = key.apply(array[i]);
+        GenericIndirectParallelMergeSort.applyPermutation(array, sortedIndex(keys));
+    }
+
+    // Stable order of keys as by String.compareTo; keys is not modified.
+    public int[] sortedIndex(String[] keys) {
+        int n = keys.length;
+        for (String s : keys) if (s == null) throw new NullPointerException("null key");
+        State s = new State(keys, threshold);
+        if (n > 1) pool.invoke(new RefineTask(s, 0, n, 0, 0));
+        return s.rows;
+    }
+
+    private static final class State {
+        final String[] keys;
+        final long[] words;
+        final int[] rows;
+        final long[] wordAux;
+        final int[] rowAux;
+        final int threshold;
+
+        State(String[] keys, int threshold) {
+            int n = keys.length;
+            this.keys = keys;
+            this.words = new long[n];
+            this.rows = ParallelIndexMergeSort.identity(n);
+            this.wordAux = new long[n];
+            this.rowAux = new int[n];
+            this.threshold = threshold;
+        }
+    }
+
+    // Chars [depth, depth + 4) packed big-endian, zero padded; the sign bit is
+    // flipped so a signed compare orders the chars as unsigned.
+    static long prefix(String s, int depth) {
+        int len = s.length();
+        long w = 0;
+        for (int c = 0; c < CHARS_PER_WORD; c++) {
+            int pos = depth + c;
+            w = (w << 16) | (pos < len ? s.charAt(pos) : 0);
+        }
+        return w ^ Long.MIN_VALUE;
+    }
+
+    // Sorts rows [lo, hi), which agree on their first depth chars; stalled
+    // counts the levels before this one that left the run in one piece.
+    private static class RefineTask extends RecursiveAction {
+        private final State s;
+        private final int lo;
+        private final int hi;
+        private final int depth;
+        private final int stalled;
+
+        RefineTask(State s, int lo, int hi, int depth, int stalled) {
+            this.s = s;
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+            this.stalled = stalled;
+        }
+
+        @Override
+        protected void compute() {
+            long[] w = s.words;
+            if (hi - lo > s.threshold) {
+                new SortTask(s, lo, hi, depth).compute();
+            } else {
+                for (int i = lo; i < hi; i++) w[i] = prefix(s.keys[s.rows[i]], depth);
+                sequentialSort(s, lo, hi);
+            }
+
+            List<ForkJoinTask<?>> forked = new ArrayList<>();
+            int next = depth + CHARS_PER_WORD;
+            for (int i = lo; i < hi; ) {
+                int j = i + 1;
+                while (j < hi && w[j] == w[i]) j++;
+                if (j - i > 1) {
+                    int stall = j - i == hi - lo ? stalled + 1 : 0;
+                    if (next >= MAX_REFINE_DEPTH || j - i <= COMPARE_SORT_LIMIT
+                            || (stall >= MAX_STALLED_LEVELS && j - i <= s.threshold)) {
+                        compareSort(i, j, forked);
+                    } else if (anyLongerThan(i, j, next)) {
+                        RefineTask t = new RefineTask(s, i, j, next, stall);
+                        if (j - i > s.threshold) {
+                            t.fork();
+                            forked.add(t);
+                        } else {
+                            t.compute();
+                        }
+                    } else {
+                        // all keys end inside this word: equal up to zero padding,
+                        // so the shorter key sorts first
+                        for (int x = i; x < j; x++) w[x] = s.keys[s.rows[x]].length();
+                        sequentialSort(s, i, j);
+                    }
+                }
+                i = j;
+            }
+            for (ForkJoinTask<?> t : forked) t.join();
+        }
+
+        // Stable, so identical keys keep their input order. Runs above the
+        // threshold are forked like any other subtask.
+        private void compareSort(int from, int to, List<ForkJoinTask<?>> forked) {
+            String[] keys = s.keys;
+            IndexComparator comp = (x, y) -> keys[x].compareTo(keys[y]);
+            if (to - from > s.threshold) {
+                forked.add(new ParallelIndexMergeSort.MergeSortTask(s.rows, s.rowAux, from, to - 1, s.threshold, comp)
+                        .fork());
+            } else {
+                ParallelIndexMergeSort.sequentialSort(s.rows, s.rowAux, from, to - 1, comp);
+            }
+        }
+
+        private boolean anyLongerThan(int from, int to, int length) {
+            for (int i = from; i < to; i++) if (s.keys[s.rows[i]].length() > length) return true;
+            return false;
+        }
+    }
+
+    // Loads the words at depth and stable merge sorts (word, row) pairs in
+    // [lo, hi), forking one half.
+    private static class SortTask extends RecursiveAction {
+        private final State s;
+        private final int lo;
+        private final int hi;
+        private final int depth;
+
+        SortTask(State s, int lo, int hi, int depth) {
+            this.s = s;
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            sortRange(lo, hi);
+        }
+
+        private void sortRange(int from, int to) {
+            if (to - from <= s.threshold) {
+                for (int i = from; i < to; i++) s.words[i] = prefix(s.keys[s.rows[i]], depth);
+                sequentialSort(s, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            SortTask right = new SortTask(s, mid, to, depth);
+            right.fork();
+            sortRange(from, mid);
+            right.join();
+            merge(s, from, mid, to);
+        }
+    }
+
+    private static void sequentialSort(State s, int lo, int hi) {
+        if (hi - lo <= INSERTION_SORT_LIMIT) {
+            insertionSort(s.words, s.rows, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sequentialSort(s, lo, mid);
+        sequentialSort(s, mid, hi);
+        merge(s, lo, mid, hi);
+    }
+
+    private static void insertionSort(long[] w, int[] r, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long word = w[i];
+            int row = r[i];
+            int j = i - 1;
+            while (j >= lo && w[j] > word) {
+                w[j + 1] = w[j];
+                r[j + 1] = r[j];
+                j--;
+            }
+            w[j + 1] = word;
+            r[j + 1] = row;
+        }
+    }
+
+    private static void merge(State s, int lo, int mid, int hi) {
+        long[] w = s.words;
+        int[] r = s.rows;
+        if (w[mid - 1] <= w[mid]) return;
+        long[] wa = s.wordAux;
+        int[] ra = s.rowAux;
+        System.arraycopy(w, lo, wa, lo, hi - lo);
+        System.arraycopy(r, lo, ra, lo, hi - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            if (wa[i] <= wa[j]) {
+                w[k] = wa[i];
+                r[k++] = ra[i++];
+            } else {
+                w[k] = wa[j];
+                r[k++] = ra[j++];
+            }
+        }
+        while (i < mid) {
+            w[k] = wa[i];
+            r[k++] = ra[i++];
+        }
+        while (j < hi) {
+            w[k] = wa[j];
+            r[k++] = ra[j++];
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package sortbenchmark.generic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Ordered list of sort keys over ColumnTable columns, e.g.
+// SortSpec.by("age").thenDescending("salary").then("name").
+public final class SortSpec {
+
+    public static final class Key {
+        public final String column;
+        public final boolean descending;
+
+        Key(String column, boolean descending) {
+            this.column = column;
+            this.descending = descending;
+        }
+
+        @Override
+        public String toString() {
+            return column + (descending ? " desc" : " asc");
+        }
+    }
+
+    private final List<Key> keys;
+
+    private SortSpec(List<Key> keys) {
+        this.keys = Collections.unmodifiableList(keys);
+    }
+
+    public static SortSpec by(String column) {
+        return new SortSpec(List.of(new Key(column, false)));
+    }
+
+    public static SortSpec byDescending(String column) {
+        return new SortSpec(List.of(new Key(column, true)));
+    }
+
+    public SortSpec then(String column) {
+        return with(new Key(column, false));
+    }
+
+    public SortSpec thenDescending(String column) {
+        return with(new Key(column, true));
+    }
+
+    public List<Key> keys() {
+        return keys;
+    }
+
+    private SortSpec with(Key key) {
+        List<Key> next = new ArrayList<>(keys);
+        next.add(key);
+        return new SortSpec(next);
+    }
+
+    @Override
+    public String toString() {
+        return keys.toString();
+    }
+}
@@ -0,0 +1,151 @@
+package sortbenchmark.generic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+public class StringSortBenchmark {
+
+    private static final String[] FIRST = { "Ahmed", "Ali", "Amr", "Dina", "Fatima", "Hassan", "Heba",
+        "Karim", "Khaled", "Layla", "Mohamed", "Mona", "Nour", "Omar", "Rania", "Salma", "Sara", "Tarek",
+        "Youssef", "Zeinab", "Maria", "Mariam", "Marwan", "Mostafa", "Mahmoud" };
+    private static final String[] LAST = { "Abdelrahman", "Abdallah", "Ibrahim", "Ismail", "Hussein",
+        "Hassan", "Mansour", "Mahmoud", "Mostafa", "Saleh", "Salem", "Sayed", "Youssef", "Zaki" };
+    private static final String[] HOSTS = { "www.example.com", "www.example.org", "api.example.com",
+        "cdn.example.com", "shop.example.com", "docs.example.com" };
+    private static final String[] PATHS = { "/products/", "/products/category/", "/users/", "/users/profile/",
+        "/static/images/", "/api/v1/orders/", "/api/v1/orders/items/", "/api/v2/orders/" };
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : 8192;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("----------------------------------------");
+        System.out.println("String Sort Benchmark");
+        System.out.println("----------------------------------------");
+        System.out.println("Keys: " + size);
+        System.out.println("CPU cores: " + Runtime.getRuntime().availableProcessors() + "\n");
+
+        compareStrings("Name-like", names(size, 42), threshold, runs);
+        compareStrings("URL-like", urls(size, 42), threshold, runs);
+        compareStrings("Long shared prefix", longPrefixKeys(Math.max(2, size / 1000), 20_000, 42), threshold, runs);
+        compareEmployees(size, threshold, runs);
+    }
+
+    static String[] names(int size, long seed) {
+        Random rnd = new Random(seed);
+        String[] out = new String[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = FIRST[rnd.nextInt(FIRST.length)] + " " + LAST[rnd.nextInt(LAST.length)]
+                    + " " + LAST[rnd.nextInt(LAST.length)];
+        }
+        return out;
+    }
+
+    static String[] urls(int size, long seed) {
+        Random rnd = new Random(seed);
+        String[] out = new String[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = "https://" + HOSTS[rnd.nextInt(HOSTS.length)] + PATHS[rnd.nextInt(PATHS.length)]
+                    + rnd.nextInt(1_000_000) + "?ref=" + rnd.nextInt(100);
+        }
+        return out;
+    }
+
+    // Keys share a prefixLength-char prefix and many are exact duplicates, so
+    // ties survive far past any fixed refinement depth.
+    static String[] longPrefixKeys(int size, int prefixLength, long seed) {
+        Random rnd = new Random(seed);
+        char[] prefix = new char[prefixLength];
+        for (int c = 0; c < prefixLength; c++) prefix[c] = (char) ('a' + rnd.nextInt(4));
+        String common = new String(prefix);
+        String[] out = new String[size];
+        for (int i = 0; i < size; i++) out[i] = common + rnd.nextInt(Math.max(1, size / 8));
+        return out;
+    }
+
+    private static void compareStrings(String title, String[] input, int threshold, int runs) {
+        String example = input[0].length() > 60 ? input[0].substring(0, 57) + "..." : input[0];
+        System.out.println(title + " (e.g. \"" + example + "\", " + input.length + " keys)");
+        String[] expected = input.clone();
+        Arrays.sort(expected);
+        GenericParallelMergeSort<String> comparatorSort = new GenericParallelMergeSort<>(threshold);
+        ParallelStringSort stringSort = new ParallelStringSort(threshold);
+
+        long compTime = 0, prefixTime = 0, jdkTime = 0;
+        for (int run = 1; run <= runs; run++) {
+            String[] a = input.clone();
+            long t0 = System.nanoTime();
+            comparatorSort.sort(a, Comparator.naturalOrder());
+            long tComp = System.nanoTime() - t0;
+            boolean ok = Arrays.equals(a, expected);
+
+            a = input.clone();
+            t0 = System.nanoTime();
+            stringSort.sort(a);
+            long tPrefix = System.nanoTime() - t0;
+            ok &= Arrays.equals(a, expected);
+
+            a = input.clone();
+            t0 = System.nanoTime();
+            Arrays.parallelSort(a);
+            long tJdk = System.nanoTime() - t0;
+
+            if (!ok) {
+                System.out.println("ERROR: Results differ!\n");
+                return;
+            }
+            compTime += tComp;
+            prefixTime += tPrefix;
+            jdkTime += tJdk;
+            System.out.println("Run " + run + ": comparator=" + formatNano(tComp)
+                    + " | prefix=" + formatNano(tPrefix) + " | Arrays.parallelSort=" + formatNano(tJdk));
+        }
+        System.out.printf("Speedup (comparator/prefix): %.2fx, (Arrays.parallelSort/prefix): %.2fx%n",
+                compTime / (double) prefixTime, jdkTime / (double) prefixTime);
+        System.out.println("----------------------------------------");
+    }
+
+    // Stability check included: ties on the name keep input order.
+    private static void compareEmployees(int size, int threshold, int runs) {
+        Random rnd = new Random(7);
+        String[] names = names(size, 7);
+        Employee[] employees = new Employee[size];
+        for (int i = 0; i < size; i++) employees[i] = new Employee(names[i], 20 + rnd.nextInt(45), 3000 + rnd.nextInt(9000));
+        System.out.println("Employee by getName()");
+        Comparator<Employee> comp = Comparator.comparing(Employee::getName);
+        GenericParallelMergeSort<Employee> comparatorSort = new GenericParallelMergeSort<>(threshold);
+        ParallelStringSort stringSort = new ParallelStringSort(threshold);
+
+        long compTime = 0, prefixTime = 0;
+        for (int run = 1; run <= runs; run++) {
+            Employee[] a = Arrays.copyOf(employees, size);
+            long t0 = System.nanoTime();
+            comparatorSort.sort(a, comp);
+            long tComp = System.nanoTime() - t0;
+
+            Employee[] b = Arrays.copyOf(employees, size);
+            t0 = System.nanoTime();
+            stringSort.sort(b, Employee::getName);
+            long tPrefix = System.nanoTime() - t0;
+
+            for (int i = 0; i < size; i++) {
+                if (a[i] != b[i]) {
+                    System.out.println("ERROR: Results differ or order is not stable!\n");
+                    return;
+                }
+            }
+            compTime += tComp;
+            prefixTime += tPrefix;
+            System.out.println("Run " + run + ": comparator=" + formatNano(tComp) + " | prefix=" + formatNano(tPrefix));
+        }
+        System.out.printf("Speedup (comparator/prefix): %.2fx%n", compTime / (double) prefixTime);
+        System.out.println("----------------------------------------");
+    }
+
+    private static String formatNano(long nanos) {
+        if (nanos < 1_000_000) return nanos + " ns";
+        return nanos / 1_000_000 + " ms";
+    }
+}